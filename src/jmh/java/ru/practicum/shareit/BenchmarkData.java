@@ -0,0 +1,95 @@
+package ru.practicum.shareit;
+
+import lombok.experimental.UtilityClass;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.Status;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Entity graphs shaped like the ones the services map: bookings spread around now, items with owners,
+ * requests with a few items each. Seeded so every run works on the same data.
+ */
+@UtilityClass
+public class BenchmarkData {
+    private static final long SEED = 42;
+    private static final LocalDateTime NOW = LocalDateTime.of(2024, 6, 1, 12, 0);
+
+    public LocalDateTime now() {
+        return NOW;
+    }
+
+    public List<User> users(int count) {
+        List<User> users = new ArrayList<>(count);
+        for (long i = 1; i <= count; i++) {
+            users.add(new User(i, "User " + i, "user" + i + "@yandex.ru"));
+        }
+        return users;
+    }
+
+    public List<Item> items(int count, List<User> owners) {
+        Random random = new Random(SEED);
+        List<Item> items = new ArrayList<>(count);
+        for (long i = 1; i <= count; i++) {
+            items.add(Item.builder()
+                    .id(i)
+                    .name("Item " + i)
+                    .description("Description of item " + i)
+                    .available(random.nextBoolean())
+                    .owner(owners.get(random.nextInt(owners.size())))
+                    .build());
+        }
+        return items;
+    }
+
+    public List<Booking> bookings(int count, List<Item> items, List<User> bookers) {
+        Random random = new Random(SEED);
+        List<Booking> bookings = new ArrayList<>(count);
+        for (long i = 1; i <= count; i++) {
+            LocalDateTime start = NOW.plusHours(random.nextInt(24 * 60) - 24 * 30);
+            bookings.add(Booking.builder()
+                    .id(i)
+                    .start(start)
+                    .end(start.plusHours(1 + random.nextInt(72)))
+                    .item(items.get(random.nextInt(items.size())))
+                    .booker(bookers.get(random.nextInt(bookers.size())))
+                    .status(Status.APPROVED)
+                    .build());
+        }
+        return bookings;
+    }
+
+    public List<ItemRequest> requests(int count, int itemsPerRequest, List<User> requesters) {
+        Random random = new Random(SEED);
+        List<ItemRequest> requests = new ArrayList<>(count);
+        long itemId = 1;
+        for (long i = 1; i <= count; i++) {
+            ItemRequest request = ItemRequest.builder()
+                    .id(i)
+                    .description("Request " + i)
+                    .requester(requesters.get(random.nextInt(requesters.size())))
+                    .created(NOW.minusHours(i))
+                    .items(new ArrayList<>())
+                    .build();
+            for (int j = 0; j < itemsPerRequest; j++) {
+                Item item = Item.builder()
+                        .id(itemId++)
+                        .name("Answer " + j)
+                        .description("Answer " + j + " to request " + i)
+                        .available(true)
+                        .owner(requesters.get(random.nextInt(requesters.size())))
+                        .request(request)
+                        .build();
+                request.getItems().add(item);
+            }
+            requests.add(request);
+        }
+        return requests;
+    }
+}
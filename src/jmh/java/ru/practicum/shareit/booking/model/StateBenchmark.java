@@ -0,0 +1,19 @@
+package ru.practicum.shareit.booking.model;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@org.openjdk.jmh.annotations.State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class StateBenchmark {
+
+    @Param({"ALL", "REJECTED", "UNSUPPORTED_STATUS"})
+    private String state;
+
+    @Benchmark
+    public State from() {
+        return State.from(state);
+    }
+}
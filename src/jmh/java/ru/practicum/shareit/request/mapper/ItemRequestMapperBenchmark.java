@@ -0,0 +1,35 @@
+package ru.practicum.shareit.request.mapper;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import ru.practicum.shareit.BenchmarkData;
+import ru.practicum.shareit.request.model.ItemRequest;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ItemRequestMapperBenchmark {
+
+    @Param({"10", "100", "1000"})
+    private int size;
+
+    @Param({"0", "5"})
+    private int itemsPerRequest;
+
+    private List<ItemRequest> requests;
+
+    @Setup
+    public void setUp() {
+        requests = BenchmarkData.requests(size, itemsPerRequest, BenchmarkData.users(50));
+    }
+
+    @Benchmark
+    public void toRequestDtoOut(Blackhole blackhole) {
+        for (ItemRequest request : requests) {
+            blackhole.consume(ItemRequestMapper.toRequestDtoOut(request));
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package ru.practicum.shareit.user.repository;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.ShareItApp;
+import ru.practicum.shareit.user.model.User;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Insert throughput against an in-memory database. A batch size of 1 sends one insert per round trip,
+ * as the identity ids did; 50 matches the default configuration.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class UserInsertBenchmark {
+    private static final int SIZE = 1000;
+
+    @Param({"1", "50"})
+    private int batchSize;
+
+    private ConfigurableApplicationContext context;
+    private UserRepository userRepository;
+    private TransactionTemplate transactionTemplate;
+    private long sequence;
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(ShareItApp.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.datasource.url=jdbc:h2:mem:insert-benchmark;DB_CLOSE_DELAY=-1",
+                        "--spring.jpa.properties.hibernate.jdbc.batch_size=" + batchSize,
+                        "--logging.level.root=WARN",
+                        "--logging.level.org.springframework.transaction.interceptor=WARN",
+                        "--logging.level.org.springframework.orm.jpa.JpaTransactionManager=WARN");
+        userRepository = context.getBean(UserRepository.class);
+        transactionTemplate = context.getBean(TransactionTemplate.class);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SIZE)
+    public List<User> saveAll() {
+        return transactionTemplate.execute(status -> userRepository.saveAll(users()));
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SIZE)
+    public List<User> insertAll() {
+        return transactionTemplate.execute(status -> userRepository.insertAll(users()));
+    }
+
+    private List<User> users() {
+        List<User> users = new ArrayList<>(SIZE);
+        for (int i = 0; i < SIZE; i++) {
+            long id = sequence++;
+            users.add(User.builder().name("User " + id).email("user" + id + "@benchmark.ru").build());
+        }
+        return users;
+    }
+}
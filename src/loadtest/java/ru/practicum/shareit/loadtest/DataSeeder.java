@@ -0,0 +1,95 @@
+package ru.practicum.shareit.loadtest;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Fills the schema with JDBC batches. Ids are assigned here, so the traffic generator can pick
+ * existing users without reading them back, and the id sequences are moved past them afterwards.
+ */
+@RequiredArgsConstructor
+public class DataSeeder {
+    static final String[] WORDS = {"drill", "saw", "ladder", "tent", "bike", "camera", "kayak", "grill", "hammer",
+            "projector"};
+    private static final int BATCH_SIZE = 1_000;
+    private static final String[] STATUSES = {"APPROVED", "APPROVED", "APPROVED", "WAITING", "REJECTED"};
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Random random = new Random(42);
+
+    public void seed(LoadTestOptions options) {
+        LocalDateTime now = LocalDateTime.now();
+        List<Object[]> rows = new ArrayList<>();
+
+        for (long id = 1; id <= options.getUsers(); id++) {
+            rows.add(new Object[]{id, "User " + id, "user" + id + "@loadtest.ru"});
+        }
+        insert("insert into users (id, name, email) values (?, ?, ?)", rows);
+
+        for (long id = 1; id <= options.getRequests(); id++) {
+            rows.add(new Object[]{id, "Need a " + word(), user(options),
+                    Timestamp.valueOf(now.minusMinutes(random.nextInt(60 * 24 * 30)))});
+        }
+        insert("insert into requests (id, description, requester_id, created) values (?, ?, ?, ?)", rows);
+
+        for (long id = 1; id <= options.getItems(); id++) {
+            String word = word();
+            Long requestId = options.getRequests() > 0 && random.nextInt(10) == 0
+                    ? (long) (1 + random.nextInt(options.getRequests()))
+                    : null;
+            rows.add(new Object[]{id, word + " " + id, "A " + word + " in good condition, also fits a " + word(),
+                    random.nextInt(5) != 0, user(options), requestId});
+        }
+        insert("insert into items (id, name, description, is_available, owner_id, request_id) " +
+                "values (?, ?, ?, ?, ?, ?)", rows);
+
+        for (long id = 1; id <= options.getBookings(); id++) {
+            LocalDateTime start = now.plusHours(random.nextInt(24 * 120) - 24 * 60);
+            rows.add(new Object[]{id, Timestamp.valueOf(start), Timestamp.valueOf(start.plusHours(1 + random.nextInt(96))),
+                    item(options), user(options), STATUSES[random.nextInt(STATUSES.length)]});
+        }
+        insert("insert into bookings (id, start_date, end_date, item_id, booker_id, status) " +
+                "values (?, ?, ?, ?, ?, ?)", rows);
+
+        for (long id = 1; id <= options.getComments(); id++) {
+            rows.add(new Object[]{id, "Great " + word(), item(options), user(options),
+                    Timestamp.valueOf(now.minusMinutes(random.nextInt(60 * 24 * 30)))});
+        }
+        insert("insert into comments (id, text, item_id, author_id, created) values (?, ?, ?, ?, ?)", rows);
+
+        restartSequence("users", options.getUsers());
+        restartSequence("requests", options.getRequests());
+        restartSequence("items", options.getItems());
+        restartSequence("bookings", options.getBookings());
+        restartSequence("comments", options.getComments());
+    }
+
+    private void insert(String sql, List<Object[]> rows) {
+        for (int from = 0; from < rows.size(); from += BATCH_SIZE) {
+            jdbcTemplate.batchUpdate(sql, rows.subList(from, Math.min(from + BATCH_SIZE, rows.size())));
+        }
+        rows.clear();
+    }
+
+    private void restartSequence(String table, long lastId) {
+        jdbcTemplate.execute("alter sequence " + table + "_seq restart with " + (lastId + 1));
+    }
+
+    private String word() {
+        return WORDS[random.nextInt(WORDS.length)];
+    }
+
+    private long user(LoadTestOptions options) {
+        return 1 + random.nextInt(options.getUsers());
+    }
+
+    private long item(LoadTestOptions options) {
+        return 1 + random.nextInt(options.getItems());
+    }
+}
@@ -0,0 +1,209 @@
+package ru.practicum.shareit.loadtest;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.ShareItApp;
+import ru.practicum.shareit.item.search.InMemoryItemSearchEngine;
+import ru.practicum.shareit.item.search.ItemSearchEngine;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Collectors;
+
+import static ru.practicum.shareit.item.controller.ItemController.USER_HEADER;
+
+/**
+ * Boots ShareItApp on a local database, seeds it and drives a fixed mix of read traffic, then prints
+ * throughput and latency percentiles per scenario. Run with mvn -Ploadtest verify -DskipTests.
+ * With --server-threads=platform,virtual the whole run is repeated for each kind of request threads, e.g.
+ * --server-threads=platform,virtual --scenarios=search,bookings --threads=200 compares them on the search and
+ * booking endpoints; add -Dloadtest.jvm.args=-Djdk.tracePinnedThreads=short to log pinned virtual threads.
+ */
+@Slf4j
+public class LoadTest {
+    private static final Scenario[] SCENARIOS = {
+            new Scenario("GET /items/search", 40) {
+                @Override
+                String path(LoadTestOptions options, ThreadLocalRandom random) {
+                    return "/items/search?text=" + DataSeeder.WORDS[random.nextInt(DataSeeder.WORDS.length)];
+                }
+            },
+            new Scenario("GET /bookings", 10) {
+                @Override
+                String path(LoadTestOptions options, ThreadLocalRandom random) {
+                    return "/bookings";
+                }
+            },
+            new Scenario("GET /bookings/owner", 25) {
+                @Override
+                String path(LoadTestOptions options, ThreadLocalRandom random) {
+                    return "/bookings/owner";
+                }
+            },
+            new Scenario("GET /items", 20) {
+                @Override
+                String path(LoadTestOptions options, ThreadLocalRandom random) {
+                    return "/items";
+                }
+            },
+            new Scenario("GET /requests/all", 15) {
+                @Override
+                String path(LoadTestOptions options, ThreadLocalRandom random) {
+                    return "/requests/all?from=" + random.nextInt(5) * 10 + "&size=10";
+                }
+            }
+    };
+
+    private final LoadTestOptions options;
+    private final List<Scenario> scenarios;
+    private final HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+    private String baseUrl;
+
+    public LoadTest(LoadTestOptions options) {
+        this.options = options;
+        this.scenarios = Arrays.stream(SCENARIOS)
+                .filter(scenario -> options.getScenarios().isEmpty()
+                        || options.getScenarios().stream().anyMatch(scenario.name::contains))
+                .collect(Collectors.toList());
+        if (scenarios.isEmpty()) {
+            throw new IllegalArgumentException("No scenario matches " + options.getScenarios());
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        new LoadTest(LoadTestOptions.parse(args)).run();
+    }
+
+    public void run() throws Exception {
+        log.info("Load test: {}", options);
+        for (String threads : options.getServerThreads()) {
+            run(threads);
+        }
+    }
+
+    private void run(String threads) throws Exception {
+        try (ConfigurableApplicationContext context = start(threads)) {
+            long seedStart = System.nanoTime();
+            new DataSeeder(context.getBean(JdbcTemplate.class)).seed(options);
+            ItemSearchEngine searchEngine = context.getBean(ItemSearchEngine.class);
+            if (searchEngine instanceof InMemoryItemSearchEngine) {
+                ((InMemoryItemSearchEngine) searchEngine).rebuild();
+            }
+            log.info("Seeded in {} ms", (System.nanoTime() - seedStart) / 1_000_000);
+
+            baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+            drive(options.getWarmupSeconds());
+            Map<String, LatencyRecorder> results = drive(options.getDurationSeconds());
+            report(threads, results);
+        }
+    }
+
+    private ConfigurableApplicationContext start(String threads) {
+        return new SpringApplicationBuilder(ShareItApp.class).run(
+                "--server.port=0",
+                "--shareit.server.threads=" + threads,
+                "--spring.datasource.url=" + options.datasourceUrl(threads),
+                "--shareit.metrics.slow-request-threshold-ms=" + Long.MAX_VALUE,
+                "--shareit.metrics.statements-threshold=" + Long.MAX_VALUE,
+                "--logging.level.root=WARN",
+                "--logging.level.ru.practicum.shareit.loadtest=INFO",
+                "--logging.level.org.springframework.transaction.interceptor=WARN",
+                "--logging.level.org.springframework.orm.jpa.JpaTransactionManager=WARN");
+    }
+
+    private Map<String, LatencyRecorder> drive(int seconds) throws Exception {
+        long deadline = System.nanoTime() + Duration.ofSeconds(seconds).toNanos();
+        ExecutorService executor = Executors.newFixedThreadPool(options.getThreads());
+        try {
+            List<Future<Map<String, LatencyRecorder>>> workers = new ArrayList<>();
+            for (int i = 0; i < options.getThreads(); i++) {
+                workers.add(executor.submit(() -> work(deadline)));
+            }
+            Map<String, LatencyRecorder> results = new LinkedHashMap<>();
+            for (Scenario scenario : scenarios) {
+                results.put(scenario.name, new LatencyRecorder());
+            }
+            for (Future<Map<String, LatencyRecorder>> worker : workers) {
+                worker.get().forEach((name, recorder) -> results.get(name).merge(recorder));
+            }
+            return results;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private Map<String, LatencyRecorder> work(long deadline) throws Exception {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int totalWeight = scenarios.stream().mapToInt(scenario -> scenario.weight).sum();
+        Map<String, LatencyRecorder> recorders = new HashMap<>();
+        while (System.nanoTime() < deadline) {
+            Scenario scenario = pick(random.nextInt(totalWeight));
+            HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + scenario.path(options, random)))
+                    .header(USER_HEADER, String.valueOf(1 + random.nextInt(options.getUsers())))
+                    .timeout(Duration.ofSeconds(30))
+                    .GET()
+                    .build();
+            long start = System.nanoTime();
+            HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+            recorders.computeIfAbsent(scenario.name, name -> new LatencyRecorder())
+                    .record(System.nanoTime() - start, response.statusCode() == 200);
+        }
+        return recorders;
+    }
+
+    private Scenario pick(int value) {
+        for (Scenario scenario : scenarios) {
+            value -= scenario.weight;
+            if (value < 0) {
+                return scenario;
+            }
+        }
+        return scenarios.get(scenarios.size() - 1);
+    }
+
+    private void report(String threads, Map<String, LatencyRecorder> results) {
+        StringBuilder report = new StringBuilder(String.format("%n%-22s %9s %8s %9s %9s %9s %9s %9s%n",
+                "scenario", "requests", "errors", "req/s", "p50 ms", "p90 ms", "p99 ms", "max ms"));
+        LatencyRecorder total = new LatencyRecorder();
+        results.forEach((name, recorder) -> {
+            appendRow(report, name, recorder);
+            total.merge(recorder);
+        });
+        appendRow(report, "total", total);
+        log.info("Results over {} s with {} client threads and {} server threads:{}", options.getDurationSeconds(),
+                options.getThreads(), threads, report);
+    }
+
+    private void appendRow(StringBuilder report, String name, LatencyRecorder recorder) {
+        report.append(String.format("%-22s %9d %8d %9.1f %9.2f %9.2f %9.2f %9.2f%n",
+                name, recorder.getCount(), recorder.getErrors(),
+                (double) recorder.getCount() / options.getDurationSeconds(),
+                recorder.percentileMs(50), recorder.percentileMs(90), recorder.percentileMs(99),
+                recorder.percentileMs(100)));
+    }
+
+    private abstract static class Scenario {
+        private final String name;
+        private final int weight;
+
+        Scenario(String name, int weight) {
+            this.name = name;
+            this.weight = weight;
+        }
+
+        abstract String path(LoadTestOptions options, ThreadLocalRandom random);
+    }
+}
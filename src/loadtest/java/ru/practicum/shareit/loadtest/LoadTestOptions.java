@@ -0,0 +1,80 @@
+package ru.practicum.shareit.loadtest;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Volumes and traffic shape of a run, read from --name=value arguments.
+ */
+@Getter
+public class LoadTestOptions {
+    private final int users;
+    private final int items;
+    private final int bookings;
+    private final int comments;
+    private final int requests;
+    private final int threads;
+    private final int warmupSeconds;
+    private final int durationSeconds;
+    @Getter(AccessLevel.NONE)
+    private final String datasourceUrl;
+    private final List<String> serverThreads;
+    private final List<String> scenarios;
+
+    private LoadTestOptions(Map<String, String> values) {
+        users = intValue(values, "users", 1_000);
+        items = intValue(values, "items", 5_000);
+        bookings = intValue(values, "bookings", 50_000);
+        comments = intValue(values, "comments", 10_000);
+        requests = intValue(values, "requests", 2_000);
+        threads = intValue(values, "threads", 8);
+        warmupSeconds = intValue(values, "warmup", 10);
+        durationSeconds = intValue(values, "duration", 30);
+        datasourceUrl = values.getOrDefault("datasource-url", "jdbc:h2:mem:loadtest-{threads};DB_CLOSE_DELAY=-1");
+        serverThreads = listValue(values, "server-threads", "platform");
+        scenarios = listValue(values, "scenarios", "");
+    }
+
+    public static LoadTestOptions parse(String[] args) {
+        Map<String, String> values = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --name=value, got " + arg);
+            }
+            int separator = arg.indexOf('=');
+            values.put(arg.substring(2, separator), arg.substring(separator + 1));
+        }
+        return new LoadTestOptions(values);
+    }
+
+    /**
+     * Url of the database for a run with the given server threads, {threads} is replaced so that the runs
+     * of a comparison each seed their own database.
+     */
+    public String datasourceUrl(String threads) {
+        return datasourceUrl.replace("{threads}", threads);
+    }
+
+    private static List<String> listValue(Map<String, String> values, String name, String defaultValue) {
+        String value = values.getOrDefault(name, defaultValue);
+        return value.isBlank() ? List.of() : Arrays.asList(value.split(","));
+    }
+
+    private static int intValue(Map<String, String> values, String name, int defaultValue) {
+        String value = values.get(name);
+        return value == null ? defaultValue : Integer.parseInt(value);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("users=%d items=%d bookings=%d comments=%d requests=%d threads=%d warmup=%ds duration=%ds "
+                        + "server-threads=%s scenarios=%s", users, items, bookings, comments, requests, threads,
+                warmupSeconds, durationSeconds, String.join(",", serverThreads),
+                scenarios.isEmpty() ? "all" : String.join(",", scenarios));
+    }
+}
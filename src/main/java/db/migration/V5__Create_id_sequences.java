@@ -0,0 +1,34 @@
+package db.migration;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Moves id generation from identity columns to sequences that Hibernate allocates from in blocks of 50
+ * (pooled-lo), which lets it batch inserts. The sequences start after the ids already in use. The identity
+ * is dropped so that an insert without an explicit id fails instead of colliding with a preallocated block.
+ */
+public class V5__Create_id_sequences extends BaseJavaMigration {
+    private static final String[] TABLES = {"users", "requests", "items", "bookings", "comments"};
+    private static final int INCREMENT = 50;
+
+    @Override
+    public void migrate(Context context) throws SQLException {
+        try (Statement statement = context.getConnection().createStatement()) {
+            for (String table : TABLES) {
+                long start;
+                try (ResultSet maxId = statement.executeQuery("SELECT COALESCE(MAX(id), 0) + 1 FROM " + table)) {
+                    maxId.next();
+                    start = maxId.getLong(1);
+                }
+                statement.execute("ALTER TABLE " + table + " ALTER COLUMN id DROP IDENTITY");
+                statement.execute("CREATE SEQUENCE " + table + "_seq START WITH " + start
+                        + " INCREMENT BY " + INCREMENT);
+            }
+        }
+    }
+}
@@ -1,15 +1,21 @@
 package ru.practicum.shareit.booking.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingDtoOut;
 import ru.practicum.shareit.booking.setvice.BookingService;
+import ru.practicum.shareit.page.PageResponse;
+import ru.practicum.shareit.page.StreamLimiter;
 
+import javax.servlet.http.HttpServletResponse;
 import javax.validation.Valid;
 import javax.validation.constraints.Min;
+import java.io.IOException;
 import java.util.List;
 
 import static ru.practicum.shareit.item.controller.ItemController.USER_HEADER;
@@ -23,6 +29,8 @@ import static ru.practicum.shareit.item.controller.ItemController.USER_HEADER;
 public class BookingController {
 
     private final BookingService bookingService;
+    private final ObjectMapper objectMapper;
+    private final StreamLimiter streamLimiter;
 
     @PostMapping
     public BookingDtoOut create(@RequestHeader(USER_HEADER) Long userId,
@@ -49,21 +57,47 @@ public class BookingController {
     }
 
     @GetMapping
-    public List<BookingDtoOut> findAll(@RequestHeader(USER_HEADER) Long userId,
-                                       @RequestParam(value = "state", defaultValue = "ALL") String bookingState,
-                                       @RequestParam(defaultValue = "0") @Min(0) Integer from,
-                                       @RequestParam(defaultValue = "10") @Min(1) Integer size) {
+    public ResponseEntity<List<BookingDtoOut>> findAll(@RequestHeader(USER_HEADER) Long userId,
+                                                       @RequestParam(value = "state", defaultValue = "ALL")
+                                                       String bookingState,
+                                                       @RequestParam(defaultValue = "0") @Min(0) Integer from,
+                                                       @RequestParam(defaultValue = "10") @Min(1) Integer size,
+                                                       @RequestParam(required = false) String cursor) {
         log.info("GET a request to get a list of all bookings of the current user with id: {} and status {}", userId, bookingState);
-        return bookingService.findAllForBooker(userId, bookingState, from, size);
+        return PageResponse.ok(bookingService.findAllForBooker(userId, bookingState, from, size, cursor));
     }
 
     @GetMapping("/owner")
-    public List<BookingDtoOut> getAllOwner(@RequestHeader(USER_HEADER) Long ownerId,
-                                           @RequestParam(value = "state", defaultValue = "ALL") String bookingState,
-                                           @RequestParam(defaultValue = "0") @Min(0) Integer from,
-                                           @RequestParam(defaultValue = "10") @Min(1) Integer size) {
+    public ResponseEntity<List<BookingDtoOut>> getAllOwner(@RequestHeader(USER_HEADER) Long ownerId,
+                                                           @RequestParam(value = "state", defaultValue = "ALL")
+                                                           String bookingState,
+                                                           @RequestParam(defaultValue = "0") @Min(0) Integer from,
+                                                           @RequestParam(defaultValue = "10") @Min(1) Integer size,
+                                                           @RequestParam(required = false) String cursor) {
         log.info("GET a request to get a list of all bookings of the current owner with id: {} and status {}",
                 ownerId, bookingState);
-        return bookingService.findAllForOwner(ownerId, bookingState, from, size);
+        return PageResponse.ok(bookingService.findAllForOwner(ownerId, bookingState, from, size, cursor));
+    }
+
+    /**
+     * The owner's complete booking history in one response, written as it is read from the database, within
+     * the limits of the {@link StreamLimiter}.
+     */
+    @GetMapping("/owner/export")
+    public void exportOwner(@RequestHeader(USER_HEADER) Long ownerId,
+                            @RequestParam(value = "state", defaultValue = "ALL") String bookingState,
+                            @RequestParam(defaultValue = "ndjson") String format,
+                            HttpServletResponse response) throws IOException {
+        log.info("GET a request to export all bookings of the owner with id: {} and status {} as {}",
+                ownerId, bookingState, format);
+        BookingExportWriter writer = new BookingExportWriter(response, BookingExportFormat.from(format),
+                objectMapper.writerFor(BookingDtoOut.class));
+        streamLimiter.stream(response, checkDeadline -> {
+            bookingService.exportAllForOwner(ownerId, bookingState, booking -> {
+                checkDeadline.run();
+                writer.accept(booking);
+            });
+            writer.finish();
+        });
     }
 }
@@ -0,0 +1,77 @@
+package ru.practicum.shareit.booking.controller;
+
+import com.fasterxml.jackson.databind.ObjectWriter;
+import ru.practicum.shareit.booking.dto.BookingDtoOut;
+
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.util.function.Consumer;
+
+/**
+ * Writes exported bookings straight to the response, one line each. The response is opened with the first
+ * booking, so an error raised before it still gets the usual JSON error body.
+ */
+class BookingExportWriter implements Consumer<BookingDtoOut> {
+    static final String CSV_HEADER = "id,start,end,status,itemId,itemName,bookerId,bookerName";
+
+    private final HttpServletResponse response;
+    private final BookingExportFormat format;
+    private final ObjectWriter jsonWriter;
+    private Writer out;
+
+    BookingExportWriter(HttpServletResponse response, BookingExportFormat format, ObjectWriter jsonWriter) {
+        this.response = response;
+        this.format = format;
+        this.jsonWriter = jsonWriter;
+    }
+
+    @Override
+    public void accept(BookingDtoOut booking) {
+        try {
+            open();
+            out.write(format == BookingExportFormat.CSV ? toCsv(booking) : jsonWriter.writeValueAsString(booking));
+            out.write('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    void finish() throws IOException {
+        open();
+        out.flush();
+    }
+
+    private void open() throws IOException {
+        if (out != null) {
+            return;
+        }
+        response.setContentType(format.getContentType());
+        response.setCharacterEncoding("UTF-8");
+        out = response.getWriter();
+        if (format == BookingExportFormat.CSV) {
+            out.write(CSV_HEADER);
+            out.write('\n');
+        }
+    }
+
+    private static String toCsv(BookingDtoOut booking) {
+        return String.join(",",
+                String.valueOf(booking.getId()),
+                String.valueOf(booking.getStart()),
+                String.valueOf(booking.getEnd()),
+                String.valueOf(booking.getStatus()),
+                String.valueOf(booking.getItemId()),
+                csvField(booking.getItem().getName()),
+                String.valueOf(booking.getBookerId()),
+                csvField(booking.getBooker().getName()));
+    }
+
+    private static String csvField(String value) {
+        if (value.contains(",") || value.contains("\"") || value.contains("\n") || value.contains("\r")) {
+            return "\"" + value.replace("\"", "\"\"") + "\"";
+        }
+        return value;
+    }
+}
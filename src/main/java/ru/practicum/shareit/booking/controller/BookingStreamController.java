@@ -0,0 +1,125 @@
+package ru.practicum.shareit.booking.controller;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ru.practicum.shareit.booking.dto.BookingDtoOut;
+import ru.practicum.shareit.booking.event.BookingEventBroadcaster;
+import ru.practicum.shareit.booking.setvice.BookingService;
+import ru.practicum.shareit.exceptions.ErrorResponse;
+import ru.practicum.shareit.exceptions.NotFoundException;
+import ru.practicum.shareit.exceptions.ValidationException;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.function.Consumer;
+
+import static ru.practicum.shareit.config.BookingStreamConfig.BOOKING_STREAM_EXECUTOR;
+import static ru.practicum.shareit.item.controller.ItemController.USER_HEADER;
+
+/**
+ * Server-sent event endpoints next to {@link BookingController}: its booking listings at /bookings/stream and
+ * /bookings/owner/stream, and the booking events of a user at /bookings/events. The request thread returns as soon as
+ * the stream is opened, the bookings are read on the stream executor and sent one {@code booking} event each,
+ * followed by a {@code complete} event carrying their number. A missing user or an unknown state is reported by
+ * an {@code error} event, since the response has already started.
+ */
+@Slf4j
+@RestController
+@RequestMapping(path = "/bookings")
+public class BookingStreamController {
+    static final String BOOKING_EVENT = "booking";
+    static final String COMPLETE_EVENT = "complete";
+    static final String ERROR_EVENT = "error";
+
+    private final BookingService bookingService;
+    private final BookingEventBroadcaster eventBroadcaster;
+    private final TaskExecutor executor;
+    private final long timeoutMs;
+
+    public BookingStreamController(BookingService bookingService,
+                                   BookingEventBroadcaster eventBroadcaster,
+                                   @Qualifier(BOOKING_STREAM_EXECUTOR) TaskExecutor executor,
+                                   @Value("${shareit.booking.stream.timeout-ms:60000}") long timeoutMs) {
+        this.bookingService = bookingService;
+        this.eventBroadcaster = eventBroadcaster;
+        this.executor = executor;
+        this.timeoutMs = timeoutMs;
+    }
+
+    @GetMapping("/stream")
+    public SseEmitter streamAll(@RequestHeader(USER_HEADER) Long userId,
+                                @RequestParam(value = "state", defaultValue = "ALL") String bookingState) {
+        log.info("GET a request to stream all bookings of the current user with id: {} and status {}",
+                userId, bookingState);
+        return stream(userId, bookingState, bookingService::exportAllForBooker);
+    }
+
+    @GetMapping("/owner/stream")
+    public SseEmitter streamAllOwner(@RequestHeader(USER_HEADER) Long ownerId,
+                                     @RequestParam(value = "state", defaultValue = "ALL") String bookingState) {
+        log.info("GET a request to stream all bookings of the current owner with id: {} and status {}",
+                ownerId, bookingState);
+        return stream(ownerId, bookingState, bookingService::exportAllForOwner);
+    }
+
+    /**
+     * Stays open and receives a {@code created}, {@code approved} or {@code rejected} event, carrying the booking,
+     * whenever one of the user's bookings or a booking of one of the user's items changes.
+     */
+    @GetMapping("/events")
+    public SseEmitter subscribe(@RequestHeader(USER_HEADER) Long userId) {
+        log.info("GET a request to subscribe to the booking events of the user with id: {}", userId);
+        return eventBroadcaster.subscribe(userId);
+    }
+
+    private SseEmitter stream(Long userId, String state, Export export) {
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        executor.execute(() -> {
+            try {
+                int[] sent = {0};
+                export.accept(userId, state, booking -> {
+                    send(emitter, SseEmitter.event()
+                            .id(String.valueOf(booking.getId()))
+                            .name(BOOKING_EVENT)
+                            .data(booking, MediaType.APPLICATION_JSON));
+                    sent[0]++;
+                });
+                send(emitter, SseEmitter.event().name(COMPLETE_EVENT).data(sent[0]));
+                emitter.complete();
+            } catch (NotFoundException | ValidationException | IllegalArgumentException e) {
+                send(emitter, SseEmitter.event()
+                        .name(ERROR_EVENT)
+                        .data(new ErrorResponse(e.getMessage()), MediaType.APPLICATION_JSON));
+                emitter.complete();
+            } catch (UncheckedIOException e) {
+                log.debug("The booking stream of the user with id: {} was closed by the client", userId);
+                emitter.completeWithError(e.getCause());
+            } catch (RuntimeException e) {
+                log.warn("The booking stream of the user with id: {} failed", userId, e);
+                emitter.completeWithError(e);
+            }
+        });
+        return emitter;
+    }
+
+    private void send(SseEmitter emitter, SseEmitter.SseEventBuilder event) {
+        try {
+            emitter.send(event);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private interface Export {
+        void accept(Long userId, String state, Consumer<BookingDtoOut> consumer);
+    }
+}
@@ -0,0 +1,23 @@
+package ru.practicum.shareit.booking.event;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import ru.practicum.shareit.booking.dto.BookingDtoOut;
+import ru.practicum.shareit.booking.mapper.BookingMapper;
+import ru.practicum.shareit.booking.model.Booking;
+
+/**
+ * A change in the life of a booking, published inside the transaction making it. The booking is mapped when
+ * the event is created, while its item and booker can still be loaded.
+ */
+@Getter
+@RequiredArgsConstructor
+public class BookingEvent {
+    private final BookingEventType type;
+    private final Long ownerId;
+    private final BookingDtoOut booking;
+
+    public static BookingEvent of(BookingEventType type, Booking booking) {
+        return new BookingEvent(type, booking.getItem().getOwner().getId(), BookingMapper.toBookingOut(booking));
+    }
+}
@@ -0,0 +1,242 @@
+package ru.practicum.shareit.booking.event;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import static ru.practicum.shareit.config.BookingStreamConfig.BOOKING_EVENT_EXECUTOR;
+import static ru.practicum.shareit.config.BookingStreamConfig.BOOKING_EVENT_SENDER;
+
+/**
+ * Pushes booking events to the subscribed booker and item owner over server-sent events. An event is sent only
+ * after the transaction publishing it has committed, so a client never sees a change that was rolled back.
+ * The event executor queues every event, in commit order, on each subscription it goes to, and the sender threads
+ * write each subscription's queue in turn: a slow client only holds up its own events, and is dropped once
+ * max-pending of them wait or a single send hasn't returned for send-timeout-ms.
+ * Subscriptions live in this process, with several instances a client only gets the events of the instance
+ * it is connected to.
+ */
+@Slf4j
+@Component
+public class BookingEventBroadcaster {
+    private final UserService userService;
+    private final TaskExecutor executor;
+    private final TaskExecutor sender;
+    private final long timeoutMs;
+    private final int maxPending;
+    private final long sendTimeoutNanos;
+    private final Map<Long, Set<Subscription>> subscribers = new ConcurrentHashMap<>();
+
+    public BookingEventBroadcaster(UserService userService,
+                                   @Qualifier(BOOKING_EVENT_EXECUTOR) TaskExecutor executor,
+                                   @Qualifier(BOOKING_EVENT_SENDER) TaskExecutor sender,
+                                   @Value("${shareit.booking.events.timeout-ms:1800000}") long timeoutMs,
+                                   @Value("${shareit.booking.events.max-pending:100}") int maxPending,
+                                   @Value("${shareit.booking.events.send-timeout-ms:10000}") long sendTimeoutMs) {
+        this.userService = userService;
+        this.executor = executor;
+        this.sender = sender;
+        this.timeoutMs = timeoutMs;
+        this.maxPending = maxPending;
+        this.sendTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(sendTimeoutMs);
+    }
+
+    public SseEmitter subscribe(Long userId) {
+        userService.checkExists(userId);
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        register(userId, emitter);
+        return emitter;
+    }
+
+    void register(Long userId, SseEmitter emitter) {
+        Subscription subscription = new Subscription(userId, emitter);
+        subscribers.compute(userId, (id, subscriptions) -> {
+            Set<Subscription> userSubscriptions = subscriptions == null ? new CopyOnWriteArraySet<>() : subscriptions;
+            userSubscriptions.add(subscription);
+            return userSubscriptions;
+        });
+        Runnable remove = () -> unsubscribe(subscription);
+        emitter.onCompletion(remove);
+        emitter.onTimeout(remove);
+        emitter.onError(e -> remove.run());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onBookingEvent(BookingEvent event) {
+        Supplier<SseEmitter.SseEventBuilder> message = () -> SseEmitter.event()
+                .id(String.valueOf(event.getBooking().getId()))
+                .name(event.getType().eventName())
+                .data(event.getBooking(), MediaType.APPLICATION_JSON);
+        try {
+            executor.execute(() -> {
+                send(event.getBooking().getBookerId(), message);
+                send(event.getOwnerId(), message);
+            });
+        } catch (TaskRejectedException e) {
+            log.warn("Dropping the {} event of the booking with id: {}, too many events are waiting",
+                    event.getType().eventName(), event.getBooking().getId());
+        }
+    }
+
+    /**
+     * Keeps idle connections open through proxies closing silent ones, and finds the clients that went away
+     * or stopped reading. Only queues the heartbeats, the scheduler thread never writes to a client.
+     */
+    @Scheduled(fixedDelayString = "${shareit.booking.events.heartbeat-ms:15000}")
+    public void heartbeat() {
+        long now = System.nanoTime();
+        subscribers.values().forEach(subscriptions -> subscriptions.forEach(subscription -> {
+            if (subscription.stalledAt(now)) {
+                log.debug("Dropping a booking event subscription of the user with id: {}, a send is stuck",
+                        subscription.userId);
+                subscription.drop();
+            } else {
+                subscription.offer(() -> SseEmitter.event().comment("heartbeat"));
+            }
+        }));
+    }
+
+    public int subscriberCount() {
+        return subscribers.values().stream().mapToInt(Set::size).sum();
+    }
+
+    private void send(Long userId, Supplier<SseEmitter.SseEventBuilder> message) {
+        Set<Subscription> subscriptions = subscribers.get(userId);
+        if (subscriptions != null) {
+            subscriptions.forEach(subscription -> subscription.offer(message));
+        }
+    }
+
+    private void unsubscribe(Subscription subscription) {
+        subscribers.computeIfPresent(subscription.userId, (id, subscriptions) -> {
+            subscriptions.remove(subscription);
+            return subscriptions.isEmpty() ? null : subscriptions;
+        });
+    }
+
+    /**
+     * One connection of a user with the messages waiting for it. At most one sender thread writes them at a time,
+     * which keeps their order. The emitter is completed by that thread once its send returns, since completing it
+     * waits for the send.
+     */
+    private final class Subscription {
+        private final Long userId;
+        private final SseEmitter emitter;
+        private final Queue<Supplier<SseEmitter.SseEventBuilder>> pending = new ArrayDeque<>();
+        private boolean sending;
+        private boolean dropped;
+        private volatile long sendStart;
+
+        private Subscription(Long userId, SseEmitter emitter) {
+            this.userId = userId;
+            this.emitter = emitter;
+        }
+
+        void offer(Supplier<SseEmitter.SseEventBuilder> message) {
+            boolean full;
+            synchronized (this) {
+                if (dropped) {
+                    return;
+                }
+                full = pending.size() >= maxPending;
+                if (!full) {
+                    pending.add(message);
+                    if (sending) {
+                        return;
+                    }
+                    sending = true;
+                }
+            }
+            if (full) {
+                log.debug("Dropping a booking event subscription of the user with id: {}, too many events are waiting",
+                        userId);
+                drop();
+                return;
+            }
+            try {
+                sender.execute(this::drain);
+            } catch (TaskRejectedException e) {
+                synchronized (this) {
+                    sending = false;
+                }
+                drop();
+            }
+        }
+
+        boolean stalledAt(long now) {
+            long start = sendStart;
+            return start != 0 && now - start > sendTimeoutNanos;
+        }
+
+        /**
+         * Stops queueing messages for the connection and completes it, right away when no send is running.
+         */
+        void drop() {
+            boolean idle;
+            synchronized (this) {
+                if (dropped) {
+                    return;
+                }
+                dropped = true;
+                pending.clear();
+                idle = !sending;
+                sending = true;
+            }
+            unsubscribe(this);
+            if (idle) {
+                emitter.complete();
+            }
+        }
+
+        private void drain() {
+            while (true) {
+                Supplier<SseEmitter.SseEventBuilder> message;
+                synchronized (this) {
+                    if (dropped) {
+                        break;
+                    }
+                    message = pending.poll();
+                    if (message == null) {
+                        sending = false;
+                        return;
+                    }
+                }
+                sendStart = System.nanoTime();
+                try {
+                    emitter.send(message.get());
+                } catch (IOException | IllegalStateException e) {
+                    log.debug("Dropping a booking event subscription of the user with id: {}", userId);
+                    synchronized (this) {
+                        dropped = true;
+                        pending.clear();
+                    }
+                    unsubscribe(this);
+                    emitter.completeWithError(e);
+                    return;
+                } finally {
+                    sendStart = 0;
+                }
+            }
+            emitter.complete();
+        }
+    }
+}
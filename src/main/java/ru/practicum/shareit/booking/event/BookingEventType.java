@@ -0,0 +1,11 @@
+package ru.practicum.shareit.booking.event;
+
+public enum BookingEventType {
+    CREATED,
+    APPROVED,
+    REJECTED;
+
+    public String eventName() {
+        return name().toLowerCase();
+    }
+}
@@ -0,0 +1,53 @@
+package ru.practicum.shareit.booking.overlap;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Serializes the approvals of an item inside this process. Items are spread over a fixed number of stripes,
+ * so approvals of different items rarely wait for each other and the memory used doesn't grow with the
+ * number of items. The lock is held until the approving transaction completes: the next approval of the
+ * item only reads the booking after the previous one has been committed, so the version check doesn't fail
+ * for approvals made in this process.
+ */
+@Component
+public class ApprovalLocks {
+    private final ReentrantLock[] stripes;
+    private final long timeoutMs;
+
+    public ApprovalLocks(@Value("${shareit.booking.approval-lock.stripes:64}") int stripes,
+                         @Value("${shareit.booking.approval-lock.timeout-ms:5000}") long timeoutMs) {
+        this.stripes = new ReentrantLock[stripes];
+        for (int i = 0; i < stripes; i++) {
+            this.stripes[i] = new ReentrantLock();
+        }
+        this.timeoutMs = timeoutMs;
+    }
+
+    public void lockUntilCompletion(Long itemId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("Approval locks are only held inside a transaction");
+        }
+        ReentrantLock lock = stripes[Math.floorMod(itemId.hashCode(), stripes.length)];
+        try {
+            if (!lock.tryLock(timeoutMs, TimeUnit.MILLISECONDS)) {
+                throw new CannotAcquireLockException("Approvals of the item with id= " + itemId + " are busy");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CannotAcquireLockException("Interrupted while waiting for the item with id= " + itemId, e);
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                lock.unlock();
+            }
+        });
+    }
+}
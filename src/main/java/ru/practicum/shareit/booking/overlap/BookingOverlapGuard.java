@@ -0,0 +1,15 @@
+package ru.practicum.shareit.booking.overlap;
+
+import ru.practicum.shareit.booking.model.Booking;
+
+/**
+ * Admission of approvals: an item can't have two approved bookings whose [start, end) periods overlap.
+ */
+public interface BookingOverlapGuard {
+
+    /**
+     * Marks the booking APPROVED and saves it, or throws ValidationException when the item already has
+     * an approved booking overlapping it.
+     */
+    Booking approve(Booking booking);
+}
@@ -0,0 +1,7 @@
+package ru.practicum.shareit.booking.overlap;
+
+public enum BookingOverlapGuardType {
+    AUTO,
+    POSTGRES,
+    MEMORY
+}
@@ -0,0 +1,127 @@
+package ru.practicum.shareit.booking.overlap;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.Status;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.exceptions.ValidationException;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Keeps the approved periods of every item in a map ordered by start. The periods of an item don't overlap,
+ * so ordered by start they are ordered by end too, and only the period starting last before the new end
+ * can overlap it: a check is one O(log n) lookup. Check and reservation happen under the item's lock,
+ * a reservation is released again when the approving transaction rolls back.
+ * The periods of an item are loaded on its first approval; it only protects approvals made in this process.
+ * Periods that ended before the checked one or before now are dropped, and the time they ended by is kept: a
+ * booking waiting since earlier may still be approved and start before it, then the periods are loaded again
+ * rather than checked against the pruned ones. Items not approved for idle are evicted and loaded again on their
+ * next approval. Approvals of an item are serialized until commit by ApprovalLocks, so a reload sees every
+ * approval made before it.
+ */
+public class InMemoryBookingOverlapGuard implements BookingOverlapGuard {
+    private final BookingRepository bookingRepository;
+    private final Cache<Long, ApprovedPeriods> approvedPeriods;
+
+    public InMemoryBookingOverlapGuard(BookingRepository bookingRepository, long maxItems, Duration idle) {
+        this.bookingRepository = bookingRepository;
+        this.approvedPeriods = Caffeine.newBuilder()
+                .maximumSize(maxItems)
+                .expireAfterAccess(idle)
+                .build();
+    }
+
+    @Override
+    public Booking approve(Booking booking) {
+        Long itemId = booking.getItem().getId();
+        ApprovedPeriods approved = approvedPeriods.get(itemId, id -> new ApprovedPeriods(load(id)));
+        TreeMap<LocalDateTime, LocalDateTime> periods;
+        synchronized (approved) {
+            if (booking.getStart().isBefore(approved.prunedBefore)) {
+                approved.periods = load(itemId);
+                approved.prunedBefore = LocalDateTime.MIN;
+            }
+            periods = approved.periods;
+            LocalDateTime now = LocalDateTime.now();
+            approved.pruneEndedBefore(booking.getStart().isBefore(now) ? booking.getStart() : now);
+            Map.Entry<LocalDateTime, LocalDateTime> before = periods.lowerEntry(booking.getEnd());
+            if (before != null && before.getValue().isAfter(booking.getStart())) {
+                throw new ValidationException("The item is already booked for these dates");
+            }
+            periods.put(booking.getStart(), booking.getEnd());
+        }
+        releaseOnRollback(approved, periods, booking.getStart());
+
+        booking.setStatus(Status.APPROVED);
+        return bookingRepository.save(booking);
+    }
+
+    private TreeMap<LocalDateTime, LocalDateTime> load(Long itemId) {
+        TreeMap<LocalDateTime, LocalDateTime> periods = new TreeMap<>();
+        for (Booking approved : bookingRepository.findAllByItemIdAndStatus(itemId, Status.APPROVED)) {
+            periods.merge(approved.getStart(), approved.getEnd(), (end, other) -> end.isAfter(other) ? end : other);
+        }
+        return periods;
+    }
+
+
+    long itemCount() {
+        approvedPeriods.cleanUp();
+        return approvedPeriods.estimatedSize();
+    }
+
+    int periodCount(Long itemId) {
+        ApprovedPeriods approved = approvedPeriods.getIfPresent(itemId);
+        if (approved == null) {
+            return 0;
+        }
+        synchronized (approved) {
+            return approved.periods.size();
+        }
+    }
+
+    private void releaseOnRollback(ApprovedPeriods approved, TreeMap<LocalDateTime, LocalDateTime> periods,
+                                   LocalDateTime start) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    synchronized (approved) {
+                        periods.remove(start);
+                    }
+                }
+            }
+        });
+    }
+
+    /**
+     * The approved periods of an item still kept, and the time every dropped one had ended by.
+     */
+    private static class ApprovedPeriods {
+        private TreeMap<LocalDateTime, LocalDateTime> periods;
+        private LocalDateTime prunedBefore = LocalDateTime.MIN;
+
+        ApprovedPeriods(TreeMap<LocalDateTime, LocalDateTime> periods) {
+            this.periods = periods;
+        }
+
+        void pruneEndedBefore(LocalDateTime time) {
+            while (!periods.isEmpty() && !periods.firstEntry().getValue().isAfter(time)) {
+                periods.pollFirstEntry();
+            }
+            if (time.isAfter(prunedBefore)) {
+                prunedBefore = time;
+            }
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package ru.practicum.shareit.booking.overlap;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DataIntegrityViolationException;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.Status;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.exceptions.ValidationException;
+
+/**
+ * Leaves the check to the exclusion constraint on (item_id, tsrange(start_date, end_date)) of approved
+ * bookings: the GiST index finds a conflict in logarithmic time and concurrent approvals serialize on it.
+ * The update is flushed right away so that a violation is reported by the approval itself.
+ */
+@RequiredArgsConstructor
+public class PostgresBookingOverlapGuard implements BookingOverlapGuard {
+    static final String CONSTRAINT = "ex_bookings_item_approved_overlap";
+
+    private final BookingRepository bookingRepository;
+
+    @Override
+    public Booking approve(Booking booking) {
+        booking.setStatus(Status.APPROVED);
+        try {
+            return bookingRepository.saveAndFlush(booking);
+        } catch (DataIntegrityViolationException e) {
+            if (e.getMostSpecificCause().getMessage().contains(CONSTRAINT)) {
+                throw new ValidationException("The item is already booked for these dates");
+            }
+            throw e;
+        }
+    }
+}
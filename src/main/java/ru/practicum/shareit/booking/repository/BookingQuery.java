@@ -0,0 +1,24 @@
+package ru.practicum.shareit.booking.repository;
+
+import lombok.Builder;
+import lombok.Getter;
+import ru.practicum.shareit.booking.dto.BookingCursor;
+import ru.practicum.shareit.booking.model.State;
+
+import java.time.LocalDateTime;
+
+/**
+ * Filter for a booking listing: either bookerId or ownerId is set, the state predicate is evaluated against now.
+ * When after is set the page is read by keyset, otherwise offset is used.
+ */
+@Getter
+@Builder
+public class BookingQuery {
+    private final Long bookerId;
+    private final Long ownerId;
+    private final State state;
+    private final LocalDateTime now;
+    private final BookingCursor after;
+    private final int offset;
+    private final int limit;
+}
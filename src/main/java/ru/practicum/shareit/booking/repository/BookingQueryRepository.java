@@ -0,0 +1,26 @@
+package ru.practicum.shareit.booking.repository;
+
+import ru.practicum.shareit.booking.model.Booking;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Consumer;
+
+public interface BookingQueryRepository {
+
+    List<Booking> findAllByQuery(BookingQuery query);
+
+    /**
+     * Passes every booking matching the query, ignoring its offset and limit, to the action while reading them
+     * through a forward-only cursor. The persistence context is cleared every fetch, so memory use doesn't
+     * depend on the number of rows; the action must not keep the entities around.
+     */
+    void forEachByQuery(BookingQuery query, Consumer<Booking> action);
+
+    /**
+     * For every item the latest approved booking that started not after now and the earliest one that starts
+     * after it, with the booker fetched. Two window-function queries pick the ids, a third loads the rows.
+     */
+    List<Booking> findLastAndNextApproved(Collection<Long> itemIds, LocalDateTime now);
+}
@@ -0,0 +1,153 @@
+package ru.practicum.shareit.booking.repository;
+
+import org.hibernate.jpa.QueryHints;
+import ru.practicum.shareit.booking.dto.BookingCursor;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.State;
+import ru.practicum.shareit.booking.model.Status;
+import ru.practicum.shareit.item.model.Item;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.criteria.*;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+public class BookingQueryRepositoryImpl implements BookingQueryRepository {
+    private static final int STREAM_FETCH_SIZE = 500;
+    private static final String LAST_APPROVED_IDS = "SELECT ranked.id FROM (" +
+            "SELECT b.id, ROW_NUMBER() OVER (PARTITION BY b.item_id ORDER BY b.start_date DESC, b.id DESC) AS rn " +
+            "FROM bookings AS b " +
+            "WHERE b.item_id IN (:itemIds) AND b.status = 'APPROVED' AND b.start_date <= :now) AS ranked " +
+            "WHERE ranked.rn = 1";
+    private static final String NEXT_APPROVED_IDS = "SELECT ranked.id FROM (" +
+            "SELECT b.id, ROW_NUMBER() OVER (PARTITION BY b.item_id ORDER BY b.start_date ASC, b.id ASC) AS rn " +
+            "FROM bookings AS b " +
+            "WHERE b.item_id IN (:itemIds) AND b.status = 'APPROVED' AND b.start_date > :now) AS ranked " +
+            "WHERE ranked.rn = 1";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<Booking> findAllByQuery(BookingQuery query) {
+        return entityManager.createQuery(criteria(query))
+                .setFirstResult(query.getAfter() == null ? query.getOffset() : 0)
+                .setMaxResults(query.getLimit())
+                .getResultList();
+    }
+
+    @Override
+    public void forEachByQuery(BookingQuery query, Consumer<Booking> action) {
+        try (Stream<Booking> bookings = entityManager.createQuery(criteria(query))
+                .setHint(QueryHints.HINT_FETCH_SIZE, STREAM_FETCH_SIZE)
+                .setHint(QueryHints.HINT_READONLY, true)
+                .getResultStream()) {
+            Iterator<Booking> iterator = bookings.iterator();
+            int rows = 0;
+            while (iterator.hasNext()) {
+                action.accept(iterator.next());
+                if (++rows % STREAM_FETCH_SIZE == 0) {
+                    entityManager.clear();
+                }
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private CriteriaQuery<Booking> criteria(BookingQuery query) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Booking> criteria = cb.createQuery(Booking.class);
+        Root<Booking> booking = criteria.from(Booking.class);
+        Join<Booking, Item> item = (Join<Booking, Item>) booking.<Booking, Item>fetch("item", JoinType.INNER);
+        booking.fetch("booker", JoinType.INNER);
+
+        List<Predicate> predicates = new ArrayList<>();
+        if (query.getBookerId() != null) {
+            predicates.add(cb.equal(booking.get("booker").get("id"), query.getBookerId()));
+        }
+        if (query.getOwnerId() != null) {
+            predicates.add(cb.equal(item.get("owner").get("id"), query.getOwnerId()));
+        }
+        addStatePredicates(predicates, cb, booking, query.getState(), query.getNow());
+        if (query.getAfter() != null) {
+            predicates.add(after(cb, booking, query.getAfter()));
+        }
+
+        return criteria.select(booking)
+                .where(predicates.toArray(new Predicate[0]))
+                .orderBy(cb.desc(booking.get("start")), cb.desc(booking.get("id")));
+    }
+
+    @Override
+    public List<Booking> findLastAndNextApproved(Collection<Long> itemIds, LocalDateTime now) {
+        if (itemIds.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<Long> bookingIds = new ArrayList<>(findIds(LAST_APPROVED_IDS, itemIds, now));
+        bookingIds.addAll(findIds(NEXT_APPROVED_IDS, itemIds, now));
+        if (bookingIds.isEmpty()) {
+            return Collections.emptyList();
+        }
+        return entityManager.createQuery("select b from Booking as b join fetch b.booker where b.id in :ids",
+                        Booking.class)
+                .setParameter("ids", bookingIds)
+                .getResultList();
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Long> findIds(String sql, Collection<Long> itemIds, LocalDateTime now) {
+        List<Number> ids = entityManager.createNativeQuery(sql)
+                .setParameter("itemIds", itemIds)
+                .setParameter("now", now)
+                .getResultList();
+        return ids.stream()
+                .map(Number::longValue)
+                .collect(Collectors.toList());
+    }
+
+    private void addStatePredicates(List<Predicate> predicates, CriteriaBuilder cb, Root<Booking> booking,
+                                    State state, LocalDateTime now) {
+        Path<LocalDateTime> start = booking.get("start");
+        Path<LocalDateTime> end = booking.get("end");
+        Path<Status> status = booking.get("status");
+        switch (state) {
+            case ALL:
+                break;
+            case CURRENT:
+                predicates.add(cb.lessThanOrEqualTo(start, now));
+                predicates.add(cb.greaterThanOrEqualTo(end, now));
+                break;
+            case PAST:
+                predicates.add(cb.lessThan(end, now));
+                break;
+            case FUTURE:
+                predicates.add(cb.greaterThan(start, now));
+                break;
+            case WAITING:
+                predicates.add(cb.equal(status, Status.WAITING));
+                predicates.add(cb.greaterThan(start, now));
+                break;
+            case REJECTED:
+                predicates.add(cb.equal(status, Status.REJECTED));
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown state: " + state);
+        }
+    }
+
+    private Predicate after(CriteriaBuilder cb, Root<Booking> booking, BookingCursor cursor) {
+        Path<LocalDateTime> start = booking.get("start");
+        Path<Long> id = booking.get("id");
+        return cb.or(
+                cb.lessThan(start, cursor.getStart()),
+                cb.and(cb.equal(start, cursor.getStart()), cb.lessThan(id, cursor.getId())));
+    }
+}
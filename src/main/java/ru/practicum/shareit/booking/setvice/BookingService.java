@@ -2,8 +2,9 @@ package ru.practicum.shareit.booking.setvice;
 
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingDtoOut;
+import ru.practicum.shareit.page.PageDto;
 
-import java.util.List;
+import java.util.function.Consumer;
 
 public interface BookingService {
 
@@ -13,7 +14,19 @@ public interface BookingService {
 
     BookingDtoOut findBookingByUserId(Long userId, Long bookingId);
 
-    List<BookingDtoOut> findAllForBooker(Long userId, String state, Integer from, Integer size);
+    PageDto<BookingDtoOut> findAllForBooker(Long userId, String state, Integer from, Integer size, String cursor);
 
-    List<BookingDtoOut> findAllForOwner(Long userId, String state, Integer from, Integer size);
+    PageDto<BookingDtoOut> findAllForOwner(Long userId, String state, Integer from, Integer size, String cursor);
+
+    /**
+     * Streams every booking of the owner's items in the given state, newest first. The owner and the state
+     * are checked before the first booking is passed on.
+     */
+    void exportAllForOwner(Long userId, String state, Consumer<BookingDtoOut> consumer);
+
+    /**
+     * Streams every booking made by the user in the given state, newest first, checked like
+     * {@link #exportAllForOwner}.
+     */
+    void exportAllForBooker(Long userId, String state, Consumer<BookingDtoOut> consumer);
 }
@@ -1,21 +1,32 @@
 package ru.practicum.shareit.booking.setvice;
 
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.retry.annotation.Backoff;
+import org.springframework.retry.annotation.Retryable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.dto.BookingCursor;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingDtoOut;
+import ru.practicum.shareit.booking.event.BookingEvent;
+import ru.practicum.shareit.booking.event.BookingEventType;
 import ru.practicum.shareit.booking.mapper.BookingMapper;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.State;
 import ru.practicum.shareit.booking.model.Status;
+import ru.practicum.shareit.booking.overlap.ApprovalLocks;
+import ru.practicum.shareit.booking.overlap.BookingOverlapGuard;
+import ru.practicum.shareit.booking.repository.BookingQuery;
 import ru.practicum.shareit.booking.repository.BookingRepository;
 import ru.practicum.shareit.exceptions.NotFoundException;
 import ru.practicum.shareit.exceptions.ValidationException;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.service.ItemBookingSummaryService;
+import ru.practicum.shareit.outbox.service.OutboxService;
+import ru.practicum.shareit.page.PageDto;
 import ru.practicum.shareit.user.mapper.UserMapper;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.service.UserService;
@@ -23,6 +34,7 @@ import ru.practicum.shareit.user.service.UserService;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 @Service
@@ -32,6 +44,11 @@ public class BookingServiceImp implements BookingService {
     private final BookingRepository bookingRepository;
     private final UserService userService;
     private final ItemRepository itemRepository;
+    private final ItemBookingSummaryService summaryService;
+    private final BookingOverlapGuard overlapGuard;
+    private final ApprovalLocks approvalLocks;
+    private final ApplicationEventPublisher eventPublisher;
+    private final OutboxService outboxService;
 
     @Override
     @Transactional
@@ -40,18 +57,28 @@ public class BookingServiceImp implements BookingService {
         Item item = itemRepository.findById(bookingDto.getItemId())
                 .orElseThrow(() -> new NotFoundException("The item was not found"));
         bookingValidation(bookingDto, user, item);
-        Booking booking = BookingMapper.toBooking(user, item, bookingDto);
-        return BookingMapper.toBookingOut(bookingRepository.save(booking));
+        Booking booking = bookingRepository.save(BookingMapper.toBooking(user, item, bookingDto));
+        return publish(BookingEventType.CREATED, booking).getBooking();
     }
 
     @Override
     @Transactional
+    @Retryable(value = OptimisticLockingFailureException.class,
+            maxAttemptsExpression = "${shareit.retry.max-attempts:3}",
+            backoff = @Backoff(delayExpression = "${shareit.retry.delay-ms:50}", multiplier = 2))
     public BookingDtoOut update(Long userId, Long bookingId, Boolean approved) {
+        bookingRepository.findItemIdById(bookingId).ifPresent(approvalLocks::lockUntilCompletion);
         Booking booking = validateBookingDetails(userId, bookingId, 1);
         assert booking != null;
-        Status newStatus = approved ? Status.APPROVED : Status.REJECTED;
-        booking.setStatus(newStatus);
-        return BookingMapper.toBookingOut(bookingRepository.save(booking));
+        Booking savedBooking;
+        if (approved) {
+            savedBooking = overlapGuard.approve(booking);
+            summaryService.refresh(savedBooking.getItem());
+        } else {
+            booking.setStatus(Status.REJECTED);
+            savedBooking = bookingRepository.save(booking);
+        }
+        return publish(approved ? BookingEventType.APPROVED : BookingEventType.REJECTED, savedBooking).getBooking();
     }
 
     @Override
@@ -63,82 +90,62 @@ public class BookingServiceImp implements BookingService {
 
     @Override
     @Transactional
-    public List<BookingDtoOut> findAllForBooker(Long bookerId, String state, Integer from, Integer size) {
-        Pageable pageable = PageRequest.of(from / size, size);
-        userService.findById(bookerId);
-        switch (validState(state)) {
-            case ALL:
-                return bookingRepository.findAllBookingsByBookerId(bookerId, pageable).stream()
-                        .map(BookingMapper::toBookingOut)
-                        .collect(Collectors.toList());
-            case CURRENT:
-                return bookingRepository.findAllCurrentBookingsByBookerId(bookerId, LocalDateTime.now(), pageable).stream()
-                        .map(BookingMapper::toBookingOut)
-                        .collect(Collectors.toList());
-
-            case PAST:
-                return bookingRepository.findAllPastBookingsByBookerId(bookerId, LocalDateTime.now(), pageable).stream()
-                        .map(BookingMapper::toBookingOut)
-                        .collect(Collectors.toList());
-
-            case FUTURE:
-                return bookingRepository.findAllFutureBookingsByBookerId(bookerId, LocalDateTime.now(), pageable).stream()
-                        .map(BookingMapper::toBookingOut)
-                        .collect(Collectors.toList());
-
-            case WAITING:
-                return bookingRepository.findAllWaitingBookingsByBookerId(bookerId, LocalDateTime.now(), pageable).stream()
-                        .map(BookingMapper::toBookingOut)
-                        .collect(Collectors.toList());
-
-            case REJECTED:
-                return bookingRepository.findAllRejectedBookingsByBookerId(bookerId, LocalDateTime.now(), pageable).stream()
-                        .map(BookingMapper::toBookingOut)
-                        .collect(Collectors.toList());
-            default:
-                throw new IllegalArgumentException("Unknown state: UNSUPPORTED_STATUS");
-        }
+    public PageDto<BookingDtoOut> findAllForBooker(Long bookerId, String state, Integer from, Integer size,
+                                                   String cursor) {
+        userService.checkExists(bookerId);
+        return findAllByState(BookingQuery.builder().bookerId(bookerId), state, from, size, cursor);
     }
 
     @Override
     @Transactional
-    public List<BookingDtoOut> findAllForOwner(Long ownerId, String state, Integer from, Integer size) {
-        Pageable pageable = PageRequest.of(from / size, size);
-        userService.findById(ownerId);
-        switch (validState(state)) {
-            case ALL:
-                return bookingRepository.findAllBookingsByOwnerId(ownerId, pageable).stream()
-                        .map(BookingMapper::toBookingOut)
-                        .collect(Collectors.toList());
-            case CURRENT:
-                return bookingRepository.findAllCurrentBookingsByOwnerId(ownerId, LocalDateTime.now(), pageable).stream()
-                        .map(BookingMapper::toBookingOut)
-                        .collect(Collectors.toList());
-
-            case PAST:
-                return bookingRepository.findAllPastBookingsByOwnerId(ownerId, LocalDateTime.now(), pageable).stream()
-                        .map(BookingMapper::toBookingOut)
-                        .collect(Collectors.toList());
-
-            case FUTURE:
-                return bookingRepository.findAllFutureBookingsByOwnerId(ownerId, LocalDateTime.now(), pageable).stream()
-                        .map(BookingMapper::toBookingOut)
-                        .collect(Collectors.toList());
-
-            case WAITING:
-                return bookingRepository.findAllWaitingBookingsByOwnerId(ownerId, LocalDateTime.now(), pageable).stream()
-                        .map(BookingMapper::toBookingOut)
-                        .collect(Collectors.toList());
-
-            case REJECTED:
-                return bookingRepository.findAllRejectedBookingsByOwnerId(ownerId, pageable).stream()
-                        .map(BookingMapper::toBookingOut)
-                        .collect(Collectors.toList());
-            default:
-                throw new IllegalArgumentException("Unknown state: UNSUPPORTED_STATUS");
-        }
+    public PageDto<BookingDtoOut> findAllForOwner(Long ownerId, String state, Integer from, Integer size,
+                                                  String cursor) {
+        userService.checkExists(ownerId);
+        return findAllByState(BookingQuery.builder().ownerId(ownerId), state, from, size, cursor);
+    }
+
+    @Override
+    public void exportAllForOwner(Long ownerId, String state, Consumer<BookingDtoOut> consumer) {
+        userService.checkExists(ownerId);
+        exportAllByState(BookingQuery.builder().ownerId(ownerId), state, consumer);
     }
 
+    @Override
+    public void exportAllForBooker(Long bookerId, String state, Consumer<BookingDtoOut> consumer) {
+        userService.checkExists(bookerId);
+        exportAllByState(BookingQuery.builder().bookerId(bookerId), state, consumer);
+    }
+
+    private void exportAllByState(BookingQuery.BookingQueryBuilder query, String state,
+                                  Consumer<BookingDtoOut> consumer) {
+        query.state(validState(state))
+                .now(LocalDateTime.now());
+        bookingRepository.forEachByQuery(query.build(),
+                booking -> consumer.accept(BookingMapper.toBookingOut(booking)));
+    }
+
+    private BookingEvent publish(BookingEventType type, Booking booking) {
+        BookingEvent event = BookingEvent.of(type, booking);
+        eventPublisher.publishEvent(event);
+        outboxService.publish(OutboxService.BOOKING, booking.getId(), type.eventName(), event.getBooking());
+        return event;
+    }
+
+    private PageDto<BookingDtoOut> findAllByState(BookingQuery.BookingQueryBuilder query, String state,
+                                                  Integer from, Integer size, String cursor) {
+        query.state(validState(state))
+                .now(LocalDateTime.now())
+                .limit(size + 1);
+        if (cursor != null) {
+            query.after(BookingCursor.decode(cursor));
+        } else {
+            query.offset(from);
+        }
+        List<BookingDtoOut> rows = bookingRepository.findAllByQuery(query.build()).stream()
+                .map(BookingMapper::toBookingOut)
+                .collect(Collectors.toList());
+        return PageDto.of(rows, size, booking -> BookingCursor.of(booking).encode());
+    }
 
     private void bookingValidation(BookingDto bookingDto, User user, Item item) {
         if (!item.getAvailable()) {
@@ -0,0 +1,50 @@
+package ru.practicum.shareit.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.jdbc.DatabaseDriver;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import ru.practicum.shareit.booking.overlap.BookingOverlapGuard;
+import ru.practicum.shareit.booking.overlap.BookingOverlapGuardType;
+import ru.practicum.shareit.booking.overlap.InMemoryBookingOverlapGuard;
+import ru.practicum.shareit.booking.overlap.PostgresBookingOverlapGuard;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Picks the booking overlap guard from shareit.booking.overlap-guard. With auto, PostgreSQL relies on
+ * the exclusion constraint and anything else gets the in-process index.
+ */
+@Slf4j
+@Configuration
+public class BookingOverlapConfig {
+
+    @Bean
+    public BookingOverlapGuard bookingOverlapGuard(DataSource dataSource, BookingRepository bookingRepository,
+                                                   @Value("${shareit.booking.overlap-guard:auto}") String guard,
+                                                   @Value("${shareit.booking.overlap-index.max-items:10000}")
+                                                   long maxItems,
+                                                   @Value("${shareit.booking.overlap-index.idle-ms:600000}")
+                                                   long idleMs) {
+        BookingOverlapGuardType type = PropertyValues.parse("shareit.booking.overlap-guard", guard,
+                BookingOverlapGuardType.class);
+        if (type == BookingOverlapGuardType.AUTO) {
+            type = DatabaseDrivers.detect(dataSource) == DatabaseDriver.POSTGRESQL
+                    ? BookingOverlapGuardType.POSTGRES
+                    : BookingOverlapGuardType.MEMORY;
+        }
+        switch (type) {
+            case POSTGRES:
+                log.info("Booking overlaps are rejected by the exclusion constraint");
+                return new PostgresBookingOverlapGuard(bookingRepository);
+            case MEMORY:
+                log.info("Booking overlaps are rejected by the in-memory index");
+                return new InMemoryBookingOverlapGuard(bookingRepository, maxItems, Duration.ofMillis(idleMs));
+            default:
+                throw new IllegalStateException("Unhandled booking overlap guard " + type);
+        }
+    }
+}
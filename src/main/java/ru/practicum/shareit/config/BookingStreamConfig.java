@@ -0,0 +1,53 @@
+package ru.practicum.shareit.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * Threads reading the bookings sent over server-sent events. Each running stream holds a database connection,
+ * so there are fewer threads than connections in the Hikari pool; streams beyond them wait in the queue
+ * without holding a Tomcat thread or a connection, and are refused with 503 once the queue is full.
+ * Booking events are queued on the subscriptions by a single thread of their own, which keeps them in commit
+ * order, and written to the clients by the sender threads.
+ */
+@Configuration
+public class BookingStreamConfig {
+    public static final String BOOKING_STREAM_EXECUTOR = "bookingStreamExecutor";
+    public static final String BOOKING_EVENT_EXECUTOR = "bookingEventExecutor";
+    public static final String BOOKING_EVENT_SENDER = "bookingEventSender";
+
+    @Bean(BOOKING_STREAM_EXECUTOR)
+    public ThreadPoolTaskExecutor bookingStreamExecutor(
+            @Value("${shareit.booking.stream.threads:4}") int threads,
+            @Value("${shareit.booking.stream.queue-capacity:1000}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("booking-stream-");
+        return executor;
+    }
+
+    @Bean(BOOKING_EVENT_EXECUTOR)
+    public ThreadPoolTaskExecutor bookingEventExecutor(
+            @Value("${shareit.booking.events.queue-capacity:10000}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("booking-events-");
+        return executor;
+    }
+
+    @Bean(BOOKING_EVENT_SENDER)
+    public ThreadPoolTaskExecutor bookingEventSender(
+            @Value("${shareit.booking.events.send-threads:4}") int threads) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setThreadNamePrefix("booking-event-sender-");
+        return executor;
+    }
+}
@@ -0,0 +1,49 @@
+package ru.practicum.shareit.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Application caches. Evictions issued inside a transaction are applied after it commits, so a concurrent
+ * reader can't put the old row back between the eviction and the commit. Hit and miss counters of every
+ * cache are published by the actuator as {@code cache.gets}, the hit ratio since start as {@code cache.hit.ratio}.
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+    public static final String USERS = "users";
+    public static final String USER_IDS = "userIds";
+    public static final String ITEM_SEARCH = "itemSearch";
+
+    @Bean
+    public CacheManager cacheManager(@Value("${shareit.cache.spec:maximumSize=10000,recordStats}") String spec,
+                                     @Value("${shareit.cache.item-search.spec:maximumSize=10000,recordStats}")
+                                     String itemSearchSpec) {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager(USERS, USER_IDS);
+        cacheManager.setCacheSpecification(spec);
+        cacheManager.setAllowNullValues(false);
+        cacheManager.registerCustomCache(ITEM_SEARCH, Caffeine.from(itemSearchSpec).build());
+        return new TransactionAwareCacheManagerProxy(cacheManager);
+    }
+
+    @Bean
+    public MeterBinder cacheHitRatioMetrics(CacheManager cacheManager) {
+        return registry -> cacheManager.getCacheNames().forEach(name -> {
+            Object cache = cacheManager.getCache(name).getNativeCache();
+            if (cache instanceof com.github.benmanes.caffeine.cache.Cache) {
+                Gauge.builder("cache.hit.ratio", (com.github.benmanes.caffeine.cache.Cache<?, ?>) cache,
+                                c -> c.stats().hitRate())
+                        .tag("cache", name)
+                        .register(registry);
+            }
+        });
+    }
+}
@@ -0,0 +1,25 @@
+package ru.practicum.shareit.config;
+
+import lombok.experimental.UtilityClass;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.jdbc.DatabaseDriver;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
+
+import javax.sql.DataSource;
+import java.sql.DatabaseMetaData;
+
+@Slf4j
+@UtilityClass
+class DatabaseDrivers {
+
+    DatabaseDriver detect(DataSource dataSource) {
+        try {
+            String url = JdbcUtils.extractDatabaseMetaData(dataSource, DatabaseMetaData::getURL);
+            return DatabaseDriver.fromJdbcUrl(url);
+        } catch (MetaDataAccessException e) {
+            log.warn("Unable to detect the database vendor", e);
+            return DatabaseDriver.UNKNOWN;
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package ru.practicum.shareit.config;
+
+import lombok.experimental.UtilityClass;
+
+/**
+ * Entity ids come from per-table sequences, Hibernate takes {@link #ALLOCATION_SIZE} ids per sequence call.
+ * The value must equal the INCREMENT BY of the sequences (V5 migration): changing it needs a migration
+ * that alters the sequences too.
+ */
+@UtilityClass
+public class IdGeneration {
+    public static final int ALLOCATION_SIZE = 50;
+}
@@ -0,0 +1,47 @@
+package ru.practicum.shareit.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.jdbc.DatabaseDriver;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.*;
+
+import javax.sql.DataSource;
+
+/**
+ * Picks the item search engine from shareit.item.search.engine. With auto, PostgreSQL ranks with pg_trgm
+ * and anything else gets the in-memory index.
+ */
+@Slf4j
+@Configuration
+public class ItemSearchConfig {
+
+    @Bean
+    public ItemSearchEngine itemSearchEngine(DataSource dataSource, ItemRepository itemRepository,
+                                             @Value("${shareit.item.search.engine:auto}") String engine) {
+        ItemSearchEngineType type = PropertyValues.parse("shareit.item.search.engine", engine,
+                ItemSearchEngineType.class);
+        if (type == ItemSearchEngineType.AUTO) {
+            type = DatabaseDrivers.detect(dataSource) == DatabaseDriver.POSTGRESQL
+                    ? ItemSearchEngineType.POSTGRES
+                    : ItemSearchEngineType.MEMORY;
+        }
+        switch (type) {
+            case POSTGRES:
+                log.info("Item search uses pg_trgm");
+                return new PostgresItemSearchEngine(itemRepository);
+            case DATABASE:
+                log.info("Item search uses the database LIKE query");
+                return new DatabaseItemSearchEngine(itemRepository);
+            case MEMORY:
+                log.info("Item search uses the in-memory index");
+                InMemoryItemSearchEngine index = new InMemoryItemSearchEngine(itemRepository);
+                index.rebuild();
+                return index;
+            default:
+                throw new IllegalStateException("Unhandled item search engine " + type);
+        }
+    }
+}
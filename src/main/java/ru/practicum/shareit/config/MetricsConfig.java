@@ -0,0 +1,49 @@
+package ru.practicum.shareit.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import ru.practicum.shareit.metrics.EndpointMetricsInterceptor;
+import ru.practicum.shareit.metrics.EntityLoadInterceptor;
+import ru.practicum.shareit.metrics.StatisticsSessionEventListener;
+
+/**
+ * Wires the per-endpoint database metrics: Hibernate reports statements and loaded entities,
+ * the MVC interceptor publishes them to Micrometer.
+ */
+@Configuration
+public class MetricsConfig implements WebMvcConfigurer {
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+    private final long slowRequestThresholdMs;
+    private final long statementsThreshold;
+
+    public MetricsConfig(ObjectProvider<MeterRegistry> meterRegistry,
+                         @Value("${shareit.metrics.slow-request-threshold-ms:500}") long slowRequestThresholdMs,
+                         @Value("${shareit.metrics.statements-threshold:10}") long statementsThreshold) {
+        this.meterRegistry = meterRegistry;
+        this.slowRequestThresholdMs = slowRequestThresholdMs;
+        this.statementsThreshold = statementsThreshold;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer statisticsHibernatePropertiesCustomizer() {
+        return properties -> {
+            properties.put(AvailableSettings.AUTO_SESSION_EVENTS_LISTENER,
+                    StatisticsSessionEventListener.class.getName());
+            properties.put(AvailableSettings.INTERCEPTOR, new EntityLoadInterceptor());
+        };
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new EndpointMetricsInterceptor(meterRegistry.getIfAvailable(SimpleMeterRegistry::new),
+                slowRequestThresholdMs, statementsThreshold));
+    }
+}
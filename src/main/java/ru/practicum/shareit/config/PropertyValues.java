@@ -0,0 +1,28 @@
+package ru.practicum.shareit.config;
+
+import lombok.experimental.UtilityClass;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.stream.Collectors;
+
+@UtilityClass
+class PropertyValues {
+
+    /**
+     * The constant named by a property value, case-insensitively and whatever the default locale. An unknown
+     * value fails startup with the property name and the values it accepts.
+     */
+    <E extends Enum<E>> E parse(String property, String value, Class<E> type) {
+        String name = value == null ? "" : value.trim().toUpperCase(Locale.ROOT);
+        for (E constant : type.getEnumConstants()) {
+            if (constant.name().equals(name)) {
+                return constant;
+            }
+        }
+        throw new IllegalArgumentException("Unknown " + property + "=" + value + ", expected one of "
+                + Arrays.stream(type.getEnumConstants())
+                .map(constant -> constant.name().toLowerCase(Locale.ROOT))
+                .collect(Collectors.joining(", ")));
+    }
+}
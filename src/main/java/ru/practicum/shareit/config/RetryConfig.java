@@ -0,0 +1,31 @@
+package ru.practicum.shareit.config;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.retry.annotation.EnableRetry;
+import org.springframework.retry.annotation.RetryConfiguration;
+
+/**
+ * Enables {@code @Retryable}. The retry advice is ordered before the transaction advice, so every attempt
+ * runs in a new transaction and reads the rows again: an update that lost an optimistic lock race is
+ * repeated against the committed state, and gives up with 409 CONFLICT after shareit.retry.max-attempts.
+ */
+@Configuration
+@EnableRetry
+public class RetryConfig {
+
+    @Bean
+    public static BeanPostProcessor retryBeforeTransactions() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof RetryConfiguration) {
+                    ((RetryConfiguration) bean).setOrder(Ordered.LOWEST_PRECEDENCE - 1);
+                }
+                return bean;
+            }
+        };
+    }
+}
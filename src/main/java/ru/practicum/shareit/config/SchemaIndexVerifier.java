@@ -0,0 +1,76 @@
+package ru.practicum.shareit.config;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.*;
+
+/**
+ * Reports on startup which of the indexes shipped by the migrations are missing from the connected database.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SchemaIndexVerifier {
+    static final Map<String, List<String>> REQUIRED_INDEXES = Map.of(
+            "bookings", List.of("idx_bookings_booker_start", "idx_bookings_item_status_start"),
+            "items", List.of("idx_items_owner_id"),
+            "comments", List.of("idx_comments_item_id"),
+            "requests", List.of("idx_requests_requester_created", "idx_requests_created_id"));
+
+    private final DataSource dataSource;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void verify() {
+        try {
+            List<String> missing = findMissingIndexes();
+            if (missing.isEmpty()) {
+                log.info("All required indexes are present");
+            } else {
+                log.warn("Missing indexes: {}. Run the schema migrations to create them", missing);
+            }
+        } catch (SQLException e) {
+            log.warn("Unable to verify database indexes: {}", e.getMessage(), e);
+        }
+    }
+
+    public List<String> findMissingIndexes() throws SQLException {
+        List<String> missing = new ArrayList<>();
+        try (Connection connection = dataSource.getConnection()) {
+            DatabaseMetaData metaData = connection.getMetaData();
+            for (Map.Entry<String, List<String>> table : REQUIRED_INDEXES.entrySet()) {
+                Set<String> existing = findIndexes(connection, metaData, table.getKey());
+                for (String index : table.getValue()) {
+                    if (!existing.contains(index)) {
+                        missing.add(table.getKey() + "." + index);
+                    }
+                }
+            }
+        }
+        Collections.sort(missing);
+        return missing;
+    }
+
+    private Set<String> findIndexes(Connection connection, DatabaseMetaData metaData, String table)
+            throws SQLException {
+        String tableName = metaData.storesUpperCaseIdentifiers() ? table.toUpperCase(Locale.ROOT) : table;
+        Set<String> indexes = new HashSet<>();
+        try (ResultSet resultSet = metaData.getIndexInfo(connection.getCatalog(), null, tableName, false, true)) {
+            while (resultSet.next()) {
+                String name = resultSet.getString("INDEX_NAME");
+                if (name != null) {
+                    indexes.add(name.toLowerCase(Locale.ROOT));
+                }
+            }
+        }
+        return indexes;
+    }
+}
@@ -0,0 +1,49 @@
+package ru.practicum.shareit.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.coyote.ProtocolHandler;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Picks the threads handling requests from shareit.server.threads. With virtual, every request runs on its own
+ * virtual thread, and so do the JPA and Hikari calls it makes: a request waiting for the database no longer
+ * holds a Tomcat worker. Concurrency is then limited by server.tomcat.max-connections and, for anything touching
+ * the database, by the Hikari pool: requests beyond spring.datasource.hikari.maximum-pool-size wait up to
+ * connection-timeout for a connection, so the pool is sized for the database, not for the number of requests.
+ * A virtual thread blocking inside synchronized code pins its carrier thread; start with
+ * -Djdk.tracePinnedThreads=short to log where that happens.
+ */
+@Slf4j
+@Configuration
+public class ServerThreadsConfig {
+
+    @Bean
+    public TomcatProtocolHandlerCustomizer<ProtocolHandler> serverThreadsCustomizer(
+            @Value("${shareit.server.threads:platform}") String threads,
+            @Value("${spring.datasource.hikari.maximum-pool-size:10}") int poolSize) {
+        ServerThreads type = PropertyValues.parse("shareit.server.threads", threads, ServerThreads.class);
+        if (type == ServerThreads.PLATFORM) {
+            log.info("Requests are handled by the Tomcat worker pool");
+            return protocolHandler -> {
+            };
+        }
+        Optional<ExecutorService> executor = VirtualThreads.newPerTaskExecutor("http-virtual-");
+        if (executor.isEmpty()) {
+            log.warn("Virtual threads need Java 21, running on {}: requests are handled by the Tomcat worker pool",
+                    System.getProperty("java.version"));
+            return protocolHandler -> {
+            };
+        }
+        log.info("Requests are handled by virtual threads, {} of them can use the database at a time", poolSize);
+        if (System.getProperty("jdk.tracePinnedThreads") == null) {
+            log.info("Start with -Djdk.tracePinnedThreads=short to log virtual threads pinned by synchronized code");
+        }
+        return protocolHandler -> protocolHandler.setExecutor(executor.get());
+    }
+}
@@ -0,0 +1,41 @@
+package ru.practicum.shareit.config;
+
+import lombok.experimental.UtilityClass;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Creates virtual threads through reflection, the application is still compiled for Java 11.
+ */
+@UtilityClass
+class VirtualThreads {
+
+    /**
+     * Returns an executor starting a named virtual thread per task, or nothing when the runtime has no
+     * virtual threads (before Java 21, or Java 19 and 20 without --enable-preview).
+     */
+    Optional<ExecutorService> newPerTaskExecutor(String namePrefix) {
+        try {
+            Class<?> builderType = Class.forName("java.lang.Thread$Builder");
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            builder = builderType.getMethod("name", String.class, long.class).invoke(builder, namePrefix, 0L);
+            ThreadFactory factory = (ThreadFactory) builderType.getMethod("factory").invoke(builder);
+            return Optional.of((ExecutorService) Executors.class
+                    .getMethod("newThreadPerTaskExecutor", ThreadFactory.class)
+                    .invoke(null, factory));
+        } catch (ClassNotFoundException | NoSuchMethodException e) {
+            return Optional.empty();
+        } catch (InvocationTargetException e) {
+            if (e.getCause() instanceof UnsupportedOperationException) {
+                return Optional.empty();
+            }
+            throw new IllegalStateException("Unable to create virtual threads", e.getCause());
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException("Unable to create virtual threads", e);
+        }
+    }
+}
@@ -1,6 +1,8 @@
 package ru.practicum.shareit.exceptions;
 
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.dao.ConcurrencyFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
@@ -33,6 +35,31 @@ public class ErrorHandler {
         );
     }
 
+    @ExceptionHandler
+    @ResponseStatus(HttpStatus.CONFLICT)
+    public ErrorResponse handleConcurrencyFailureException(final ConcurrencyFailureException e) {
+        log.warn("Получен статус 409 CONFLICT {}", e.getMessage(), e);
+        return new ErrorResponse(
+                "The resource was changed by another request, please retry"
+        );
+    }
+
+    @ExceptionHandler
+    @ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+    public ErrorResponse handleTaskRejectedException(final TaskRejectedException e) {
+        log.warn("Получен статус 503 SERVICE_UNAVAILABLE {}", e.getMessage(), e);
+        return new ErrorResponse(
+                "Too many requests are waiting, please retry later"
+        );
+    }
+
+    /**
+     * Rethrown, the response has been committed and only the container can still abort it; it logs the error.
+     */
+    @ExceptionHandler
+    public void handleStreamAbortedException(final StreamAbortedException e) {
+        throw e;
+    }
 
     @ExceptionHandler
     @ResponseStatus(HttpStatus.INTERNAL_SERVER_ERROR)
@@ -4,4 +4,12 @@ public class NotUniqueEmailException extends RuntimeException {
     public NotUniqueEmailException(String msg) {
         super(msg);
     }
+
+    public NotUniqueEmailException(String msg, Throwable cause) {
+        super(msg, cause);
+    }
+
+    public static String message(String email) {
+        return "User with email= " + email + " already exists.";
+    }
 }
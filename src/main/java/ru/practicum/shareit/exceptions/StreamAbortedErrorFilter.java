@@ -0,0 +1,37 @@
+package ru.practicum.shareit.exceptions;
+
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.RequestDispatcher;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * Skips the error page of a {@link StreamAbortedException}. The container still includes it in the committed
+ * response before closing the connection, which would put an error body after the rows after all.
+ */
+@Component
+public class StreamAbortedErrorFilter extends OncePerRequestFilter {
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        for (Object e = request.getAttribute(RequestDispatcher.ERROR_EXCEPTION); e instanceof Throwable;
+             e = ((Throwable) e).getCause()) {
+            if (e instanceof StreamAbortedException) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    protected boolean shouldNotFilterErrorDispatch() {
+        return false;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain) {
+    }
+}
@@ -0,0 +1,13 @@
+package ru.practicum.shareit.exceptions;
+
+/**
+ * A listing written to the response while it is read failed after part of it had been sent. It isn't answered
+ * with an error body: it reaches the container, which closes the connection, so the client sees a cut response
+ * rather than an error appended to the rows.
+ */
+public class StreamAbortedException extends RuntimeException {
+
+    public StreamAbortedException(Throwable cause) {
+        super("The response was aborted after it had started: " + cause.getMessage(), cause);
+    }
+}
@@ -2,6 +2,7 @@ package ru.practicum.shareit.item.controller;
 
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.item.dto.CommentDto;
@@ -9,6 +10,7 @@ import ru.practicum.shareit.item.dto.CommentDtoOut;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemDtoOut;
 import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.page.PageResponse;
 
 import javax.validation.Valid;
 import javax.validation.constraints.Min;
@@ -48,20 +50,22 @@ public class ItemController {
     }
 
     @GetMapping
-    public List<ItemDtoOut> getAllDtoItems(@RequestHeader(USER_HEADER) Long userId,
-                                           @RequestParam(defaultValue = "0") @Min(0) Integer from,
-                                           @RequestParam(defaultValue = "10") @Min(1) Integer size) {
+    public ResponseEntity<List<ItemDtoOut>> getAllDtoItems(@RequestHeader(USER_HEADER) Long userId,
+                                                           @RequestParam(defaultValue = "0") @Min(0) Integer from,
+                                                           @RequestParam(defaultValue = "10") @Min(1) Integer size,
+                                                           @RequestParam(required = false) String cursor) {
         log.info("GET-request to get all items from the user with id= " + userId);
-        return itemService.findAllItemsDto(userId, from, size);
+        return PageResponse.ok(itemService.findAllItemsDto(userId, from, size, cursor));
     }
 
     @GetMapping("/search")
-    public List<ItemDtoOut> searchDtoItem(@RequestHeader(USER_HEADER) Long userId,
-                                          @RequestParam String text,
-                                          @RequestParam(defaultValue = "0") @Min(0) Integer from,
-                                          @RequestParam(defaultValue = "10") @Min(1) Integer size) {
+    public ResponseEntity<List<ItemDtoOut>> searchDtoItem(@RequestHeader(USER_HEADER) Long userId,
+                                                          @RequestParam String text,
+                                                          @RequestParam(defaultValue = "0") @Min(0) Integer from,
+                                                          @RequestParam(defaultValue = "10") @Min(1) Integer size,
+                                                          @RequestParam(required = false) String cursor) {
         log.info("GET-request to search an item with text = {}", text);
-        return itemService.findItemDtoByText(userId, text, from, size);
+        return PageResponse.ok(itemService.findItemDtoByText(userId, text, from, size, cursor));
     }
 
     @PostMapping("/{itemId}/comment")
@@ -0,0 +1,48 @@
+package ru.practicum.shareit.item.dto;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
+import ru.practicum.shareit.exceptions.ValidationException;
+import ru.practicum.shareit.item.search.ItemSearchHit;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Opaque position in the search results ordered by (rank DESC, id): the rank and id of the last item seen.
+ * The rank is the one the item was found at, so an edit of that item doesn't move the position.
+ * Clients receive it as a url-safe string and send it back unchanged to get the next page.
+ */
+@Getter
+@ToString
+@EqualsAndHashCode
+@RequiredArgsConstructor
+public class ItemSearchCursor {
+    private static final String SEPARATOR = "_";
+
+    private final double rank;
+    private final Long id;
+
+    public static ItemSearchCursor of(ItemSearchHit hit) {
+        return new ItemSearchCursor(hit.getRank(), hit.getItem().getId());
+    }
+
+    public static ItemSearchCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf(SEPARATOR);
+            return new ItemSearchCursor(
+                    Double.parseDouble(raw.substring(0, separator)),
+                    Long.parseLong(raw.substring(separator + 1)));
+        } catch (RuntimeException e) {
+            throw new ValidationException("Invalid cursor: " + cursor);
+        }
+    }
+
+    public String encode() {
+        String raw = rank + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,36 @@
+package ru.practicum.shareit.item.model;
+
+import lombok.*;
+import ru.practicum.shareit.booking.model.Booking;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Last and next approved booking of an item as of the moment it was computed. It stays correct until
+ * validUntil, the start of the next booking, or until an approved booking of the item changes.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Entity
+@Table(name = "item_booking_summary", schema = "public")
+public class ItemBookingSummary {
+    @Id
+    @Column(name = "item_id")
+    private Long itemId;
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "last_booking_id")
+    @ToString.Exclude
+    private Booking lastBooking;
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "next_booking_id")
+    @ToString.Exclude
+    private Booking nextBooking;
+    @Column(name = "valid_until")
+    private LocalDateTime validUntil;
+    public boolean isStale(LocalDateTime now) {
+        return validUntil != null && !now.isBefore(validUntil);
+    }
+}
@@ -0,0 +1,15 @@
+package ru.practicum.shareit.item.repository;
+
+import ru.practicum.shareit.item.model.ItemBookingSummary;
+
+import java.util.List;
+
+public interface ItemBookingSummaryBatchRepository {
+
+    /**
+     * Inserts summaries of items that had none, under a savepoint. When a concurrent transaction stored the
+     * summary of one of the items first, the savepoint is rolled back and the calling transaction goes on:
+     * nothing is inserted and false is returned.
+     */
+    boolean insertAbsent(List<ItemBookingSummary> summaries);
+}
@@ -0,0 +1,56 @@
+package ru.practicum.shareit.item.repository;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.item.model.ItemBookingSummary;
+
+import java.sql.Savepoint;
+import java.util.List;
+
+@Slf4j
+public class ItemBookingSummaryBatchRepositoryImpl implements ItemBookingSummaryBatchRepository {
+    private static final String INSERT = "INSERT INTO item_booking_summary " +
+            "(item_id, last_booking_id, next_booking_id, valid_until) VALUES (?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public ItemBookingSummaryBatchRepositoryImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public boolean insertAbsent(List<ItemBookingSummary> summaries) {
+        if (summaries.isEmpty()) {
+            return true;
+        }
+        return jdbcTemplate.execute((ConnectionCallback<Boolean>) connection -> {
+            Savepoint savepoint = connection.setSavepoint();
+            try {
+                insertAll(summaries);
+            } catch (DataIntegrityViolationException | ConcurrencyFailureException e) {
+                connection.rollback(savepoint);
+                log.debug("Booking summaries were stored by a concurrent request: {}", e.getMessage());
+                return false;
+            }
+            connection.releaseSavepoint(savepoint);
+            return true;
+        });
+    }
+
+    private void insertAll(List<ItemBookingSummary> summaries) {
+        jdbcTemplate.batchUpdate(INSERT, summaries, summaries.size(), (statement, summary) -> {
+            statement.setLong(1, summary.getItemId());
+            statement.setObject(2, idOf(summary.getLastBooking()));
+            statement.setObject(3, idOf(summary.getNextBooking()));
+            statement.setObject(4, summary.getValidUntil());
+        });
+    }
+
+    private static Long idOf(Booking booking) {
+        return booking == null ? null : booking.getId();
+    }
+}
@@ -0,0 +1,19 @@
+package ru.practicum.shareit.item.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import ru.practicum.shareit.item.model.ItemBookingSummary;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface ItemBookingSummaryRepository extends JpaRepository<ItemBookingSummary, Long>,
+        ItemBookingSummaryBatchRepository {
+    @Query("select s from ItemBookingSummary as s " +
+            "left join fetch s.lastBooking as lb " +
+            "left join fetch lb.booker " +
+            "left join fetch s.nextBooking as nb " +
+            "left join fetch nb.booker " +
+            "where s.itemId in ?1")
+    List<ItemBookingSummary> findAllByItemIdIn(Collection<Long> itemIds);
+}
@@ -2,21 +2,63 @@ package ru.practicum.shareit.item.repository;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import ru.practicum.shareit.item.model.Item;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface ItemRepository extends JpaRepository<Item, Long> {
     @Query("select i from Item as i " +
             "where i.available = true and " +
             "(lower(i.name) like lower(concat('%', ?1, '%') ) or " +
-            "lower(i.description) like lower (concat('%', ?1, '%') ))")
-    List<Item> search(String text, Pageable pageable);
+            "lower(i.description) like lower (concat('%', ?1, '%') )) " +
+            "order by i.id")
+    Slice<Item> search(String text, Pageable pageable);
 
-    List<Item> findAllByOwnerId(Long ownerId, Pageable pageable);
+    @Query("select i from Item as i " +
+            "where i.available = true and " +
+            "(lower(i.name) like lower(concat('%', ?1, '%') ) or " +
+            "lower(i.description) like lower (concat('%', ?1, '%') )) and " +
+            "i.id > ?2 " +
+            "order by i.id")
+    Slice<Item> searchAfter(String text, Long lastId, Pageable pageable);
+
+    @Query(value = "select i.id as id, " +
+            "cast(2 * similarity(lower(i.name), lower(:text)) + similarity(lower(i.description), lower(:text)) " +
+            "as double precision) as rank " +
+            "from items as i " +
+            "where i.is_available = true and " +
+            "(lower(i.name) like lower(concat('%', :text, '%')) or " +
+            "lower(i.description) like lower(concat('%', :text, '%'))) " +
+            "order by rank desc, i.id",
+            nativeQuery = true)
+    Slice<RankedItemId> searchRanked(@Param("text") String text, Pageable pageable);
+
+    /**
+     * The ranked search continued after (lastRank, lastId), the position the client has seen last.
+     */
+    @Query(value = "select hits.id as id, hits.rank as rank from (" +
+            "select i.id as id, " +
+            "cast(2 * similarity(lower(i.name), lower(:text)) + similarity(lower(i.description), lower(:text)) " +
+            "as double precision) as rank " +
+            "from items as i " +
+            "where i.is_available = true and " +
+            "(lower(i.name) like lower(concat('%', :text, '%')) or " +
+            "lower(i.description) like lower(concat('%', :text, '%')))) as hits " +
+            "where hits.rank < :lastRank or (hits.rank = :lastRank and hits.id > :lastId) " +
+            "order by hits.rank desc, hits.id",
+            nativeQuery = true)
+    Slice<RankedItemId> searchRankedAfter(@Param("text") String text, @Param("lastRank") double lastRank,
+                                          @Param("lastId") Long lastId, Pageable pageable);
+
+    Slice<Item> findAllByOwnerId(Long ownerId, Pageable pageable);
 
     Page<Item> findAllByOwnerIdOrderByIdAsc(Long ownerId, Pageable pageable);
 
+    List<Item> findAllByRequestIdIn(Collection<Long> requestIds);
+
 }
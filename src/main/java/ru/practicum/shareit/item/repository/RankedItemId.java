@@ -0,0 +1,10 @@
+package ru.practicum.shareit.item.repository;
+
+/**
+ * The id of an item found by the ranked search with its rank.
+ */
+public interface RankedItemId {
+    Long getId();
+
+    Double getRank();
+}
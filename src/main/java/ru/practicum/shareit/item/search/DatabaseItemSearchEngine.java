@@ -0,0 +1,34 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Slice;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.page.OffsetPageRequest;
+
+/**
+ * The plain LIKE query over name and description, kept as the baseline to compare the other engines against.
+ * It doesn't rank: every hit has rank 0 and they come in order of id.
+ */
+@RequiredArgsConstructor
+public class DatabaseItemSearchEngine implements ItemSearchEngine {
+    private final ItemRepository itemRepository;
+
+    @Override
+    public Slice<ItemSearchHit> search(String text, int offset, int limit) {
+        return itemRepository.search(text, OffsetPageRequest.of(offset, limit)).map(this::unranked);
+    }
+
+    @Override
+    public Slice<ItemSearchHit> searchAfter(String text, double lastRank, Long lastId, int limit) {
+        return itemRepository.searchAfter(text, lastId, OffsetPageRequest.of(0, limit)).map(this::unranked);
+    }
+
+    private ItemSearchHit unranked(Item item) {
+        return new ItemSearchHit(item, 0);
+    }
+
+    @Override
+    public void index(Item item) {
+    }
+}
@@ -0,0 +1,259 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.page.OffsetPageRequest;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * In-memory inverted index over the names and descriptions of available items. It serves search without
+ * touching the database, apart from loading the page of hits. Every trigram of the query must be present
+ * in a document, so the posting lists narrow the candidates and the substring check only runs on those.
+ * Results are ranked by the trigram similarity of the query to the name (weighted twice) and to the
+ * description. Documents where the query is a whole word get a bonus.
+ */
+@Slf4j
+public class InMemoryItemSearchEngine implements ItemSearchEngine {
+    private static final int GRAM = 3;
+    private static final int REBUILD_BATCH_SIZE = 500;
+    private static final Pattern TOKEN_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final Comparator<Scored> RANKING = Comparator
+            .comparingDouble((Scored hit) -> -hit.score)
+            .thenComparing(hit -> hit.id);
+
+    private final ItemRepository itemRepository;
+    private final Map<String, Set<Long>> postings = new HashMap<>();
+    private final Map<Long, Document> documents = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public InMemoryItemSearchEngine(ItemRepository itemRepository) {
+        this.itemRepository = itemRepository;
+    }
+
+    public void rebuild() {
+        Page<Item> page = itemRepository.findAll(PageRequest.of(0, REBUILD_BATCH_SIZE, Sort.by("id")));
+        while (true) {
+            page.forEach(this::apply);
+            if (!page.hasNext()) {
+                break;
+            }
+            page = itemRepository.findAll(page.nextPageable());
+        }
+        log.info("Item search index built with {} items", documents.size());
+    }
+
+    @Override
+    public Slice<ItemSearchHit> search(String text, int offset, int limit) {
+        return find(text, hit -> true, offset, limit);
+    }
+
+    /**
+     * Continues with the documents ranked after (lastRank, lastId). The last item isn't looked up again, so
+     * an edit of it since the previous page doesn't move the position.
+     */
+    @Override
+    public Slice<ItemSearchHit> searchAfter(String text, double lastRank, Long lastId, int limit) {
+        return find(text, hit -> hit.score < lastRank || hit.score == lastRank && hit.id > lastId, 0, limit);
+    }
+
+    private Slice<ItemSearchHit> find(String text, Predicate<Scored> after, int offset, int limit) {
+        String query = normalize(text);
+        Set<String> queryGrams = grams(query);
+        List<Scored> ranked;
+        lock.readLock().lock();
+        try {
+            ranked = candidates(queryGrams).stream()
+                    .map(documents::get)
+                    .filter(document -> document.matches(query))
+                    .map(document -> new Scored(document.getId(), document.score(query, queryGrams)))
+                    .filter(after)
+                    .sorted(RANKING)
+                    .skip(offset)
+                    .limit(limit + 1L)
+                    .collect(Collectors.toList());
+        } finally {
+            lock.readLock().unlock();
+        }
+        boolean hasNext = ranked.size() > limit;
+        if (hasNext) {
+            ranked = ranked.subList(0, limit);
+        }
+        Map<Long, Item> items = itemRepository.findAllById(ranked.stream().map(hit -> hit.id)
+                        .collect(Collectors.toList())).stream()
+                .collect(Collectors.toMap(Item::getId, Function.identity()));
+        List<ItemSearchHit> hits = ranked.stream()
+                .filter(hit -> items.containsKey(hit.id))
+                .filter(hit -> Boolean.TRUE.equals(items.get(hit.id).getAvailable()))
+                .map(hit -> new ItemSearchHit(items.get(hit.id), hit.score))
+                .collect(Collectors.toList());
+        return new SliceImpl<>(hits, OffsetPageRequest.of(offset, limit), hasNext);
+    }
+
+    @Override
+    public void index(Item item) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply(item);
+                }
+            });
+        } else {
+            apply(item);
+        }
+    }
+
+    private void apply(Item item) {
+        lock.writeLock().lock();
+        try {
+            Document previous = documents.remove(item.getId());
+            if (previous != null) {
+                previous.getGrams().forEach(gram -> removePosting(gram, item.getId()));
+            }
+            if (Boolean.TRUE.equals(item.getAvailable())) {
+                Document document = Document.of(item);
+                documents.put(document.getId(), document);
+                document.getGrams().forEach(gram -> postings.computeIfAbsent(gram, key -> new HashSet<>())
+                        .add(document.getId()));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void removePosting(String gram, Long id) {
+        Set<Long> ids = postings.get(gram);
+        if (ids != null) {
+            ids.remove(id);
+            if (ids.isEmpty()) {
+                postings.remove(gram);
+            }
+        }
+    }
+
+    private Collection<Long> candidates(Set<String> queryGrams) {
+        if (queryGrams.isEmpty()) {
+            return new ArrayList<>(documents.keySet());
+        }
+        List<Set<Long>> lists = new ArrayList<>();
+        for (String gram : queryGrams) {
+            Set<Long> ids = postings.get(gram);
+            if (ids == null) {
+                return Collections.emptyList();
+            }
+            lists.add(ids);
+        }
+        lists.sort(Comparator.comparingInt(Set::size));
+        Set<Long> result = new HashSet<>(lists.get(0));
+        for (int i = 1; i < lists.size() && !result.isEmpty(); i++) {
+            result.retainAll(lists.get(i));
+        }
+        return result;
+    }
+
+    static String normalize(String text) {
+        return text == null ? "" : text.toLowerCase(Locale.ROOT);
+    }
+
+    static Set<String> grams(String text) {
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + GRAM <= text.length(); i++) {
+            grams.add(text.substring(i, i + GRAM));
+        }
+        return grams;
+    }
+
+    static Set<String> tokens(String text) {
+        Set<String> tokens = new HashSet<>(Arrays.asList(TOKEN_SEPARATOR.split(text)));
+        tokens.remove("");
+        return tokens;
+    }
+
+    private static double similarity(String query, Set<String> queryGrams, String field, Set<String> fieldGrams) {
+        if (queryGrams.isEmpty()) {
+            return field.contains(query) && !field.isEmpty() ? (double) query.length() / field.length() : 0;
+        }
+        int shared = 0;
+        for (String gram : queryGrams) {
+            if (fieldGrams.contains(gram)) {
+                shared++;
+            }
+        }
+        return (double) shared / (queryGrams.size() + fieldGrams.size() - shared);
+    }
+
+    private static final class Scored {
+        private final Long id;
+        private final double score;
+
+        private Scored(Long id, double score) {
+            this.id = id;
+            this.score = score;
+        }
+    }
+
+    private static final class Document {
+        private final Long id;
+        private final String name;
+        private final String description;
+        private final Set<String> nameGrams;
+        private final Set<String> descriptionGrams;
+        private final Set<String> nameTokens;
+        private final Set<String> descriptionTokens;
+
+        private Document(Long id, String name, String description) {
+            this.id = id;
+            this.name = name;
+            this.description = description;
+            this.nameGrams = grams(name);
+            this.descriptionGrams = grams(description);
+            this.nameTokens = tokens(name);
+            this.descriptionTokens = tokens(description);
+        }
+
+        static Document of(Item item) {
+            return new Document(item.getId(), normalize(item.getName()), normalize(item.getDescription()));
+        }
+
+        Long getId() {
+            return id;
+        }
+
+        Set<String> getGrams() {
+            Set<String> grams = new HashSet<>(nameGrams);
+            grams.addAll(descriptionGrams);
+            return grams;
+        }
+
+        boolean matches(String query) {
+            return name.contains(query) || description.contains(query);
+        }
+
+        double score(String query, Set<String> queryGrams) {
+            double score = 2 * similarity(query, queryGrams, name, nameGrams)
+                    + similarity(query, queryGrams, description, descriptionGrams);
+            if (nameTokens.contains(query)) {
+                score += 2;
+            }
+            if (descriptionTokens.contains(query)) {
+                score += 1;
+            }
+            return score;
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package ru.practicum.shareit.item.search;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import lombok.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.config.CacheConfig;
+import ru.practicum.shareit.item.dto.ItemDtoOut;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.page.PageDto;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Pages of /items/search by lower-cased text, from, size and cursor. Every engine matches the text as a
+ * case-insensitive substring of the name or the description of an available item, so when an item changes only
+ * the pages of the texts it matched before or after the change are evicted. Evictions are applied after commit
+ * and bump the generation: a search that started before that may have read the old rows, so its page isn't kept.
+ */
+@Component
+public class ItemSearchCache {
+    private final Cache<Object, Object> cache;
+    private final AtomicLong generation = new AtomicLong();
+
+    @SuppressWarnings("unchecked")
+    public ItemSearchCache(CacheManager cacheManager) {
+        this.cache = (Cache<Object, Object>) Objects.requireNonNull(cacheManager.getCache(CacheConfig.ITEM_SEARCH))
+                .getNativeCache();
+    }
+
+    /**
+     * The cached page or a new search. The page is put and the generation checked again after that, so an
+     * eviction that ran meanwhile either sees the page or makes this lookup drop it.
+     */
+    @SuppressWarnings("unchecked")
+    public PageDto<ItemDtoOut> get(String text, int from, int size, String cursor,
+                                   Supplier<PageDto<ItemDtoOut>> search) {
+        Key key = new Key(InMemoryItemSearchEngine.normalize(text), cursor == null ? from : 0, size, cursor);
+        PageDto<ItemDtoOut> cached = (PageDto<ItemDtoOut>) cache.getIfPresent(key);
+        if (cached != null) {
+            return cached;
+        }
+        long started = generation.get();
+        PageDto<ItemDtoOut> page = search.get();
+        if (generation.get() == started) {
+            cache.put(key, page);
+            if (generation.get() != started) {
+                cache.asMap().remove(key, page);
+            }
+        }
+        return page;
+    }
+
+    /**
+     * Evicts the pages the new item may now appear on.
+     */
+    public void evictCreated(Item item) {
+        evictMatching(List.of(item));
+    }
+
+    /**
+     * Evicts the pages the item was on or may now appear on; nothing when none of the searched fields changed.
+     */
+    public void evictChanged(Item before, Item after) {
+        if (Objects.equals(before.getName(), after.getName())
+                && Objects.equals(before.getDescription(), after.getDescription())
+                && Objects.equals(before.getAvailable(), after.getAvailable())) {
+            return;
+        }
+        evictMatching(List.of(before, after));
+    }
+
+    private void evictMatching(List<Item> versions) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evictNow(versions);
+                }
+            });
+        } else {
+            evictNow(versions);
+        }
+    }
+
+    private void evictNow(List<Item> versions) {
+        generation.incrementAndGet();
+        List<Object> stale = cache.asMap().keySet().stream()
+                .filter(key -> versions.stream().anyMatch(item -> matches(item, ((Key) key).getText())))
+                .collect(Collectors.toList());
+        cache.invalidateAll(stale);
+    }
+
+    private static boolean matches(Item item, String text) {
+        return Boolean.TRUE.equals(item.getAvailable())
+                && (InMemoryItemSearchEngine.normalize(item.getName()).contains(text)
+                || InMemoryItemSearchEngine.normalize(item.getDescription()).contains(text));
+    }
+
+    @Value
+    static class Key {
+        String text;
+        int from;
+        int size;
+        String cursor;
+    }
+}
@@ -0,0 +1,26 @@
+package ru.practicum.shareit.item.search;
+
+import org.springframework.data.domain.Slice;
+import ru.practicum.shareit.item.model.Item;
+
+/**
+ * Finds available items whose name or description contains the text, most relevant first.
+ */
+public interface ItemSearchEngine {
+
+    /**
+     * The hits from offset to offset + limit; the slice tells whether there are hits past it.
+     */
+    Slice<ItemSearchHit> search(String text, int offset, int limit);
+
+    /**
+     * The hits ranked after (lastRank, lastId), the rank and the id of the last hit the client has seen. Reads
+     * no more rows than the first page does, however far the client has scrolled.
+     */
+    Slice<ItemSearchHit> searchAfter(String text, double lastRank, Long lastId, int limit);
+
+    /**
+     * Called after an item was created or changed so that engines with their own index can refresh it.
+     */
+    void index(Item item);
+}
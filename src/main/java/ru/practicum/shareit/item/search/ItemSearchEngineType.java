@@ -0,0 +1,23 @@
+package ru.practicum.shareit.item.search;
+
+/**
+ * Value of the shareit.item.search.engine property.
+ */
+public enum ItemSearchEngineType {
+    /**
+     * pg_trgm on PostgreSQL, the in-memory index anywhere else.
+     */
+    AUTO,
+    /**
+     * The JPQL LIKE query, no ranking.
+     */
+    DATABASE,
+    /**
+     * pg_trgm similarity, needs the PostgreSQL vendor migration.
+     */
+    POSTGRES,
+    /**
+     * The in-memory inverted index, whatever the database.
+     */
+    MEMORY
+}
@@ -0,0 +1,14 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.Value;
+import ru.practicum.shareit.item.model.Item;
+
+/**
+ * An item found by a search with the rank it was found at, higher ranks first and ties in order of id.
+ * The rank goes into the cursor so that the next page continues from it even if the item changes meanwhile.
+ */
+@Value
+public class ItemSearchHit {
+    Item item;
+    double rank;
+}
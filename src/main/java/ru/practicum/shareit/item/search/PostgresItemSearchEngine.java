@@ -0,0 +1,47 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.repository.RankedItemId;
+import ru.practicum.shareit.page.OffsetPageRequest;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Delegates to PostgreSQL: the pg_trgm GIN indexes serve the LIKE filter and similarity() ranks the rows.
+ * The ranked ids are read first and the page of items is loaded by id.
+ */
+@RequiredArgsConstructor
+public class PostgresItemSearchEngine implements ItemSearchEngine {
+    private final ItemRepository itemRepository;
+
+    @Override
+    public Slice<ItemSearchHit> search(String text, int offset, int limit) {
+        return load(itemRepository.searchRanked(text, OffsetPageRequest.of(offset, limit)));
+    }
+
+    @Override
+    public Slice<ItemSearchHit> searchAfter(String text, double lastRank, Long lastId, int limit) {
+        return load(itemRepository.searchRankedAfter(text, lastRank, lastId, OffsetPageRequest.of(0, limit)));
+    }
+
+    @Override
+    public void index(Item item) {
+    }
+
+    private Slice<ItemSearchHit> load(Slice<RankedItemId> ranked) {
+        Map<Long, Item> items = itemRepository.findAllById(ranked.map(RankedItemId::getId).getContent()).stream()
+                .collect(Collectors.toMap(Item::getId, Function.identity()));
+        List<ItemSearchHit> hits = ranked.stream()
+                .filter(hit -> items.containsKey(hit.getId()))
+                .map(hit -> new ItemSearchHit(items.get(hit.getId()), hit.getRank()))
+                .collect(Collectors.toList());
+        return new SliceImpl<>(hits, ranked.getPageable(), ranked.hasNext());
+    }
+}
@@ -0,0 +1,21 @@
+package ru.practicum.shareit.item.service;
+
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.model.ItemBookingSummary;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+public interface ItemBookingSummaryService {
+
+    /**
+     * Summaries of the items keyed by item id, missing and outdated ones are recomputed and stored.
+     */
+    Map<Long, ItemBookingSummary> findByItems(List<Item> items, LocalDateTime now);
+
+    /**
+     * Recomputes the summary after an approved booking of the item was added or changed.
+     */
+    void refresh(Item item);
+}
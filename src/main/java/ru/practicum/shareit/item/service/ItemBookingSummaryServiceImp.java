@@ -0,0 +1,83 @@
+package ru.practicum.shareit.item.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.model.ItemBookingSummary;
+import ru.practicum.shareit.item.repository.ItemBookingSummaryRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Service
+@RequiredArgsConstructor
+@Transactional
+public class ItemBookingSummaryServiceImp implements ItemBookingSummaryService {
+    private final ItemBookingSummaryRepository summaryRepository;
+    private final BookingRepository bookingRepository;
+
+    @Override
+    public Map<Long, ItemBookingSummary> findByItems(List<Item> items, LocalDateTime now) {
+        List<Long> itemIds = items.stream()
+                .map(Item::getId)
+                .collect(Collectors.toList());
+        Map<Long, ItemBookingSummary> summaries = summaryRepository.findAllByItemIdIn(itemIds)
+                .stream()
+                .collect(Collectors.toMap(ItemBookingSummary::getItemId, Function.identity()));
+        List<Long> outdated = itemIds.stream()
+                .filter(itemId -> !summaries.containsKey(itemId) || summaries.get(itemId).isStale(now))
+                .collect(Collectors.toList());
+        if (!outdated.isEmpty()) {
+            recompute(outdated, summaries, now);
+        }
+        return summaries;
+    }
+
+    @Override
+    public void refresh(Item item) {
+        Map<Long, ItemBookingSummary> summaries = summaryRepository.findById(item.getId())
+                .stream()
+                .collect(Collectors.toMap(ItemBookingSummary::getItemId, Function.identity()));
+        recompute(List.of(item.getId()), summaries, LocalDateTime.now());
+    }
+
+    /**
+     * Existing summaries are updated in place. Missing ones are inserted without failing the caller when
+     * a concurrent first read of the same item inserts them too; the computed summary is returned either way.
+     */
+    private void recompute(List<Long> itemIds, Map<Long, ItemBookingSummary> summaries, LocalDateTime now) {
+        List<ItemBookingSummary> existing = new ArrayList<>();
+        List<ItemBookingSummary> created = new ArrayList<>();
+        for (Long itemId : itemIds) {
+            ItemBookingSummary summary = summaries.get(itemId);
+            if (summary == null) {
+                summary = ItemBookingSummary.builder().itemId(itemId).build();
+                summaries.put(itemId, summary);
+                created.add(summary);
+            } else {
+                existing.add(summary);
+            }
+            summary.setLastBooking(null);
+            summary.setNextBooking(null);
+            summary.setValidUntil(null);
+        }
+        for (Booking booking : bookingRepository.findLastAndNextApproved(itemIds, now)) {
+            ItemBookingSummary summary = summaries.get(booking.getItem().getId());
+            if (booking.getStart().isAfter(now)) {
+                summary.setNextBooking(booking);
+                summary.setValidUntil(booking.getStart());
+            } else {
+                summary.setLastBooking(booking);
+            }
+        }
+        summaryRepository.saveAll(existing);
+        summaryRepository.insertAbsent(created);
+    }
+}
@@ -4,8 +4,7 @@ import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.CommentDtoOut;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemDtoOut;
-
-import java.util.List;
+import ru.practicum.shareit.page.PageDto;
 
 public interface ItemService {
     ItemDtoOut createItemDto(Long userId, ItemDto itemDto);
@@ -14,9 +13,9 @@ public interface ItemService {
 
     ItemDtoOut findItemDtoById(Long userId, Long itemId);
 
-    List<ItemDtoOut> findAllItemsDto(Long userId, Integer from, Integer size);
+    PageDto<ItemDtoOut> findAllItemsDto(Long userId, Integer from, Integer size, String cursor);
 
-    List<ItemDtoOut> findItemDtoByText(Long userId, String text, Integer from, Integer size);
+    PageDto<ItemDtoOut> findItemDtoByText(Long userId, String text, Integer from, Integer size, String cursor);
 
     CommentDtoOut createComment(Long userId, CommentDto commentDto, Long itemId);
 }
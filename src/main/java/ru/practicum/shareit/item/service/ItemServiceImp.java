@@ -1,14 +1,17 @@
 package ru.practicum.shareit.item.service;
 
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.PageRequest;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.retry.annotation.Backoff;
+import org.springframework.retry.annotation.Retryable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.booking.dto.BookingDtoOut;
 import ru.practicum.shareit.booking.mapper.BookingMapper;
 import ru.practicum.shareit.booking.model.Booking;
-import ru.practicum.shareit.booking.model.Status;
 import ru.practicum.shareit.booking.repository.BookingRepository;
 import ru.practicum.shareit.exceptions.NotFoundException;
 import ru.practicum.shareit.exceptions.ValidationException;
@@ -16,12 +19,21 @@ import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.CommentDtoOut;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemDtoOut;
+import ru.practicum.shareit.item.dto.ItemSearchCursor;
 import ru.practicum.shareit.item.mapper.CommentMapper;
 import ru.practicum.shareit.item.mapper.ItemMapper;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.model.ItemBookingSummary;
 import ru.practicum.shareit.item.repository.CommentRepository;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemSearchCache;
+import ru.practicum.shareit.item.search.ItemSearchEngine;
+import ru.practicum.shareit.item.search.ItemSearchHit;
+import ru.practicum.shareit.outbox.service.OutboxService;
+import ru.practicum.shareit.page.OffsetCursor;
+import ru.practicum.shareit.page.OffsetPageRequest;
+import ru.practicum.shareit.page.PageDto;
 import ru.practicum.shareit.request.repository.ItemRequestRepository;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.mapper.UserMapper;
@@ -44,6 +56,10 @@ public class ItemServiceImp implements ItemService {
     private final BookingRepository bookingRepository;
     private final UserService userService;
     private final ItemRequestRepository itemRequestRepository;
+    private final ItemSearchEngine itemSearchEngine;
+    private final ItemSearchCache itemSearchCache;
+    private final ItemBookingSummaryService summaryService;
+    private final OutboxService outboxService;
 
     @Override
     @Transactional
@@ -54,19 +70,28 @@ public class ItemServiceImp implements ItemService {
         if (itemDto.getRequestId() != null) {
             item.setRequest(itemRequestRepository.getReferenceById(itemDto.getRequestId()));
         }
-        return ItemMapper.toItemDtoOut(itemRepository.save(item));
+        Item savedItem = itemRepository.save(item);
+        itemSearchEngine.index(savedItem);
+        itemSearchCache.evictCreated(savedItem);
+        ItemDtoOut itemDtoOut = ItemMapper.toItemDtoOut(savedItem);
+        outboxService.publish(OutboxService.ITEM, savedItem.getId(), OutboxService.CREATED, itemDtoOut);
+        return itemDtoOut;
     }
 
     @Override
     @Transactional
+    @Retryable(value = OptimisticLockingFailureException.class,
+            maxAttemptsExpression = "${shareit.retry.max-attempts:3}",
+            backoff = @Backoff(delayExpression = "${shareit.retry.delay-ms:50}", multiplier = 2))
     public ItemDtoOut updateItemDto(Long userId, Long itemId, ItemDto itemDto) {
         UserDto user = userService.findById(userId);
         Item item = itemRepository.findById(itemId)
                 .orElseThrow(() -> new NotFoundException("Item with id= " + itemId + " doesn't exist"));
-        if (!UserMapper.toUser(user).equals(item.getOwner())) {
+        if (!user.getId().equals(item.getOwner().getId())) {
             throw new NotFoundException("User with id= " + userId + " isn't the owner of the item with id= " + itemId);
         }
 
+        Item before = new Item(item.getName(), item.getDescription(), item.getAvailable());
         Boolean isAvailable = itemDto.getAvailable();
         if (isAvailable != null) {
             item.setAvailable(isAvailable);
@@ -79,6 +104,8 @@ public class ItemServiceImp implements ItemService {
         if (name != null && !name.isBlank()) {
             item.setName(name);
         }
+        itemSearchEngine.index(item);
+        itemSearchCache.evictChanged(before, item);
         return ItemMapper.toItemDtoOut(item);
 
     }
@@ -86,7 +113,7 @@ public class ItemServiceImp implements ItemService {
     @Override
     @Transactional
     public ItemDtoOut findItemDtoById(Long userId, Long itemId) {
-        userService.findById(userId);
+        userService.checkExists(userId);
         Optional<Item> itemGet = itemRepository.findById(itemId);
         if (itemGet.isEmpty()) {
             throw new NotFoundException("User with id= " + userId + " doesn't have the item with id= " + itemId);
@@ -99,24 +126,25 @@ public class ItemServiceImp implements ItemService {
             return itemDtoOut;
         }
 
-        List<Booking> bookings = bookingRepository.findAllByItemAndStatusOrderByStartAsc(item, Status.APPROVED);
-        List<BookingDtoOut> bookingDTOList = bookings
-                .stream()
-                .map(BookingMapper::toBookingOut)
-                .collect(toList());
-
-        itemDtoOut.setLastBooking(getLastBooking(bookingDTOList, LocalDateTime.now()));
-        itemDtoOut.setNextBooking(getNextBooking(bookingDTOList, LocalDateTime.now()));
+        ItemBookingSummary summary = summaryService.findByItems(List.of(item), LocalDateTime.now())
+                .get(item.getId());
+        if (summary != null) {
+            itemDtoOut.setLastBooking(toBookingOut(summary.getLastBooking()));
+            itemDtoOut.setNextBooking(toBookingOut(summary.getNextBooking()));
+        }
 
         return itemDtoOut;
     }
 
     @Override
     @Transactional
-    public List<ItemDtoOut> findAllItemsDto(Long userId, Integer from, Integer size) {
-        UserDto owner = userService.findById(userId);
-        Pageable pageable = PageRequest.of(from / size, size);
-        List<Item> itemList = itemRepository.findAllByOwnerId(userId, pageable);
+    public PageDto<ItemDtoOut> findAllItemsDto(Long userId, Integer from, Integer size, String cursor) {
+        userService.checkExists(userId);
+        int offset = OffsetCursor.resolve(from, cursor);
+        Pageable pageable = OffsetPageRequest.of(offset, size, Sort.by("id"));
+        PageDto<Item> page = PageDto.of(itemRepository.findAllByOwnerId(userId, pageable),
+                item -> new OffsetCursor(offset + size).encode());
+        List<Item> itemList = page.getItems();
         List<Long> idList = itemList.stream()
                 .map(Item::getId)
                 .collect(Collectors.toList());
@@ -125,36 +153,34 @@ public class ItemServiceImp implements ItemService {
                 .map(CommentMapper::toCommentDtoOut)
                 .collect(groupingBy(CommentDtoOut::getItemId, toList()));
 
-        Map<Long, List<BookingDtoOut>> bookings = bookingRepository.findAllByItemInAndStatusOrderByStartAsc(itemList,
-                        Status.APPROVED)
-                .stream()
-                .map(BookingMapper::toBookingOut)
-                .collect(groupingBy(BookingDtoOut::getItemId, toList()));
+        Map<Long, ItemBookingSummary> summaries = summaryService.findByItems(itemList, LocalDateTime.now());
 
-        return itemList
-                .stream()
-                .map(item -> ItemMapper.toItemDtoOut(
-                        item,
-                        getLastBooking(bookings.get(item.getId()), LocalDateTime.now()),
-                        comments.get(item.getId()),
-                        getNextBooking(bookings.get(item.getId()), LocalDateTime.now())
-                ))
-                .collect(toList());
+        return page.map(item -> {
+            ItemBookingSummary summary = summaries.get(item.getId());
+            return ItemMapper.toItemDtoOut(
+                    item,
+                    summary == null ? null : toBookingOut(summary.getLastBooking()),
+                    comments.get(item.getId()),
+                    summary == null ? null : toBookingOut(summary.getNextBooking()));
+        });
     }
 
     @Override
     @Transactional
-    public List<ItemDtoOut> findItemDtoByText(Long userId, String text, Integer from, Integer size) {
-        userService.findById(userId);
-        Pageable pageable = PageRequest.of(from / size, size);
+    public PageDto<ItemDtoOut> findItemDtoByText(Long userId, String text, Integer from, Integer size,
+                                                 String cursor) {
+        userService.checkExists(userId);
         if (text.isBlank()) {
-            return Collections.emptyList();
+            return PageDto.empty();
         }
-        List<Item> itemList = itemRepository.search(text, pageable);
-        return itemList.stream()
-                .map(ItemMapper::toItemDtoOut)
-                .collect(toList());
-
+        ItemSearchCursor after = cursor == null ? null : ItemSearchCursor.decode(cursor);
+        return itemSearchCache.get(text, from, size, cursor, () -> {
+            Slice<ItemSearchHit> hits = after == null
+                    ? itemSearchEngine.search(text, from, size)
+                    : itemSearchEngine.searchAfter(text, after.getRank(), after.getId(), size);
+            return PageDto.of(hits, hit -> ItemSearchCursor.of(hit).encode())
+                    .map(hit -> ItemMapper.toItemDtoOut(hit.getItem()));
+        });
     }
 
     @Override
@@ -183,26 +209,8 @@ public class ItemServiceImp implements ItemService {
                 .collect(toList());
     }
 
-    private BookingDtoOut getLastBooking(List<BookingDtoOut> bookings, LocalDateTime time) {
-        if (bookings == null || bookings.isEmpty()) {
-            return null;
-        }
-        return bookings.stream()
-                .filter(bookingDTO -> !bookingDTO.getStart().isAfter(time))
-                .reduce((booking1, booking2) -> booking1.getStart().isAfter(booking2.getStart()) ? booking1 : booking2)
-                .orElse(null);
-    }
-
-    private BookingDtoOut getNextBooking(List<BookingDtoOut> bookings, LocalDateTime time) {
-        if (bookings == null || bookings.isEmpty()) {
-            return null;
-        }
-
-        return bookings
-                .stream()
-                .filter(bookingDTO -> bookingDTO.getStart().isAfter(time))
-                .findFirst()
-                .orElse(null);
+    private BookingDtoOut toBookingOut(Booking booking) {
+        return booking == null ? null : BookingMapper.toBookingOut(booking);
     }
 
 }
@@ -0,0 +1,96 @@
+package ru.practicum.shareit.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.DispatcherType;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records per endpoint the latency, the number of SQL statements, the JDBC time and the number of loaded
+ * entities, tagged with the request method and the mapped uri pattern. Requests over either threshold
+ * are logged. Async requests, the server-sent event streams, only get their latency from the first dispatch
+ * to completion tagged async: their queries run on other threads and aren't counted.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class EndpointMetricsInterceptor implements AsyncHandlerInterceptor {
+    private static final String START_ATTRIBUTE = EndpointMetricsInterceptor.class.getName() + ".start";
+    private static final String ASYNC_ATTRIBUTE = EndpointMetricsInterceptor.class.getName() + ".async";
+
+    private final MeterRegistry meterRegistry;
+    private final long slowRequestThresholdMs;
+    private final long statementsThreshold;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (request.getDispatcherType() == DispatcherType.ASYNC) {
+            return true;
+        }
+        request.setAttribute(START_ATTRIBUTE, System.nanoTime());
+        RequestStatistics.start();
+        return true;
+    }
+
+    /**
+     * The worker thread is released until the async result is dispatched: nothing must stay bound to it.
+     */
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response,
+                                               Object handler) {
+        RequestStatistics.stop();
+        request.setAttribute(ASYNC_ATTRIBUTE, Boolean.TRUE);
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        RequestStatistics statistics = RequestStatistics.current();
+        RequestStatistics.stop();
+        Object start = request.getAttribute(START_ATTRIBUTE);
+        boolean async = request.getAttribute(ASYNC_ATTRIBUTE) != null;
+        if (start == null || statistics == null && !async) {
+            return;
+        }
+        long latency = System.nanoTime() - (Long) start;
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern == null ? "UNKNOWN" : pattern.toString();
+        Tags tags = Tags.of("method", request.getMethod(), "uri", uri);
+
+        Timer.builder("shareit.endpoint.latency")
+                .tags(tags)
+                .tag("async", String.valueOf(async))
+                .register(meterRegistry)
+                .record(latency, TimeUnit.NANOSECONDS);
+        if (async) {
+            return;
+        }
+        Timer.builder("shareit.endpoint.jdbc.time")
+                .tags(tags)
+                .register(meterRegistry)
+                .record(statistics.getJdbcNanos(), TimeUnit.NANOSECONDS);
+        DistributionSummary.builder("shareit.endpoint.statements")
+                .tags(tags)
+                .register(meterRegistry)
+                .record(statistics.getStatements());
+        DistributionSummary.builder("shareit.endpoint.entities")
+                .tags(tags)
+                .register(meterRegistry)
+                .record(statistics.getEntities());
+
+        long latencyMs = TimeUnit.NANOSECONDS.toMillis(latency);
+        if (latencyMs > slowRequestThresholdMs || statistics.getStatements() > statementsThreshold) {
+            log.warn("{} {} took {} ms: {} statements, {} ms in JDBC, {} entities loaded",
+                    request.getMethod(), uri, latencyMs, statistics.getStatements(),
+                    TimeUnit.NANOSECONDS.toMillis(statistics.getJdbcNanos()), statistics.getEntities());
+        }
+    }
+}
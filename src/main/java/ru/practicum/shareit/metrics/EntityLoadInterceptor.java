@@ -0,0 +1,22 @@
+package ru.practicum.shareit.metrics;
+
+import org.hibernate.EmptyInterceptor;
+import org.hibernate.type.Type;
+
+import java.io.Serializable;
+
+/**
+ * Counts the entities materialized from result sets. It stands in for the rows the request fetched: rows read
+ * as scalars or projections, by native queries mapped to no entity and through JdbcTemplate aren't counted.
+ */
+public class EntityLoadInterceptor extends EmptyInterceptor {
+
+    @Override
+    public boolean onLoad(Object entity, Serializable id, Object[] state, String[] propertyNames, Type[] types) {
+        RequestStatistics statistics = RequestStatistics.current();
+        if (statistics != null) {
+            statistics.addEntity();
+        }
+        return false;
+    }
+}
@@ -0,0 +1,42 @@
+package ru.practicum.shareit.metrics;
+
+import lombok.Getter;
+
+/**
+ * Database work done by the request bound to the current thread. Filled by the Hibernate hooks,
+ * read by {@link EndpointMetricsInterceptor} when the request completes.
+ */
+@Getter
+public class RequestStatistics {
+    private static final ThreadLocal<RequestStatistics> CURRENT = new ThreadLocal<>();
+
+    private long statements;
+    private long jdbcNanos;
+    private long entities;
+
+    public static RequestStatistics start() {
+        RequestStatistics statistics = new RequestStatistics();
+        CURRENT.set(statistics);
+        return statistics;
+    }
+
+    public static RequestStatistics current() {
+        return CURRENT.get();
+    }
+
+    public static void stop() {
+        CURRENT.remove();
+    }
+
+    void addStatement() {
+        statements++;
+    }
+
+    void addJdbcTime(long nanos) {
+        jdbcNanos += nanos;
+    }
+
+    void addEntity() {
+        entities++;
+    }
+}
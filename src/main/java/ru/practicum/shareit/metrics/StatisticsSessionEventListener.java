@@ -0,0 +1,46 @@
+package ru.practicum.shareit.metrics;
+
+import org.hibernate.BaseSessionEventListener;
+
+/**
+ * Hibernate creates one listener per session from the hibernate.session.events.auto setting,
+ * so the listener only keeps the start of the statement being executed and reports to the current request.
+ */
+public class StatisticsSessionEventListener extends BaseSessionEventListener {
+    private long executeStart;
+
+    @Override
+    public void jdbcPrepareStatementEnd() {
+        RequestStatistics statistics = RequestStatistics.current();
+        if (statistics != null) {
+            statistics.addStatement();
+        }
+    }
+
+    @Override
+    public void jdbcExecuteStatementStart() {
+        executeStart = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteStatementEnd() {
+        addJdbcTime();
+    }
+
+    @Override
+    public void jdbcExecuteBatchStart() {
+        executeStart = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteBatchEnd() {
+        addJdbcTime();
+    }
+
+    private void addJdbcTime() {
+        RequestStatistics statistics = RequestStatistics.current();
+        if (statistics != null) {
+            statistics.addJdbcTime(System.nanoTime() - executeStart);
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package ru.practicum.shareit.outbox.consumer;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.outbox.model.OutboxEvent;
+
+import java.util.List;
+
+/**
+ * Counts the domain changes by aggregate and event type as shareit.domain.events.
+ */
+@Component
+@RequiredArgsConstructor
+public class DomainEventMetricsConsumer implements OutboxConsumer {
+    private final MeterRegistry meterRegistry;
+
+    @Override
+    public String name() {
+        return "metrics";
+    }
+
+    @Override
+    public void handle(List<OutboxEvent> events) {
+        for (OutboxEvent event : events) {
+            meterRegistry.counter("shareit.domain.events",
+                    "aggregate", event.getAggregateType(),
+                    "type", event.getEventType()).increment();
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package ru.practicum.shareit.outbox.consumer;
+
+import ru.practicum.shareit.outbox.model.OutboxEvent;
+
+import java.util.List;
+
+/**
+ * Receives the outbox events in id order, a batch at a time. Delivery is at least once: when handle throws,
+ * or the process stops before the offset is saved, the same events are handed over again, so consumers have
+ * to tolerate seeing an event twice.
+ */
+public interface OutboxConsumer {
+
+    /**
+     * Identifies the offset of the consumer, must not change between releases.
+     */
+    String name();
+
+    void handle(List<OutboxEvent> events);
+}
@@ -0,0 +1,22 @@
+package ru.practicum.shareit.outbox.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.*;
+
+/**
+ * The id of the last outbox event a consumer has handled.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Entity
+@Table(name = "outbox_offsets", schema = "public")
+public class OutboxOffset {
+    @Id
+    private String consumer;
+    @Column(name = "last_event_id", nullable = false)
+    private Long lastEventId;
+}
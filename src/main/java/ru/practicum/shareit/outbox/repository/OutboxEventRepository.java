@@ -0,0 +1,28 @@
+package ru.practicum.shareit.outbox.repository;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.outbox.model.OutboxEvent;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    List<OutboxEvent> findAllByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+
+    List<OutboxEvent> findAllByIdInOrderByIdAsc(Collection<Long> ids);
+
+    @Query("select max(e.id) from OutboxEvent as e")
+    Optional<Long> findMaxId();
+
+    @Modifying
+    @Transactional
+    @Query("delete from OutboxEvent as e where e.id <= ?1 and e.created < ?2")
+    int deleteDelivered(Long lastEventId, LocalDateTime createdBefore);
+}
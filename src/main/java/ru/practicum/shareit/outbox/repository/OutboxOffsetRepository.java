@@ -0,0 +1,18 @@
+package ru.practicum.shareit.outbox.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.outbox.model.OutboxOffset;
+
+public interface OutboxOffsetRepository extends JpaRepository<OutboxOffset, String> {
+
+    /**
+     * Moves the offset of a consumer forward, unless another dispatcher moved it since it was read.
+     */
+    @Modifying
+    @Transactional
+    @Query("update OutboxOffset as o set o.lastEventId = ?3 where o.consumer = ?1 and o.lastEventId = ?2")
+    int advance(String consumer, Long from, Long to);
+}
@@ -0,0 +1,248 @@
+package ru.practicum.shareit.outbox.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.outbox.consumer.OutboxConsumer;
+import ru.practicum.shareit.outbox.model.OutboxEvent;
+import ru.practicum.shareit.outbox.model.OutboxOffset;
+import ru.practicum.shareit.outbox.repository.OutboxEventRepository;
+import ru.practicum.shareit.outbox.repository.OutboxOffsetRepository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Hands the outbox events to every {@link OutboxConsumer} in the background. Each consumer has its own offset,
+ * moved forward only after it has handled a batch, so a slow or failing consumer holds back nobody else: it
+ * is retried from its offset with a growing pause, and how far it is behind is published as shareit.outbox.lag.
+ * A poll hands a consumer at most max-batches batches, the rest waits in the table for the next poll.
+ * <p>
+ * Ids are taken in insert order but become visible in commit order, so a missing id may belong to a
+ * transaction that is still running. The dispatcher doesn't pass such a gap until the event after it is older
+ * than settle-ms, the longest a transaction writing to the outbox is usually expected to take. The ids of a gap
+ * it passes are kept and looked up again on every poll for gap-timeout-ms: an event committed late is handed
+ * to the consumer then, after events with greater ids, and only gaps left by rollbacks are given up. The passed
+ * gaps live in this process, after a restart only the events after the stored offsets are delivered.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "shareit.outbox.dispatcher.enabled", matchIfMissing = true)
+public class OutboxDispatcher {
+    private final List<OutboxConsumer> consumers;
+    private final OutboxEventRepository eventRepository;
+    private final OutboxOffsetRepository offsetRepository;
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+    private final int batchSize;
+    private final int maxBatches;
+    private final Duration settle;
+    private final Duration maxBackoff;
+    private final Duration retention;
+    private final Duration gapTimeout;
+    private final Map<String, ConsumerState> states = new ConcurrentHashMap<>();
+
+    public OutboxDispatcher(List<OutboxConsumer> consumers,
+                            OutboxEventRepository eventRepository,
+                            OutboxOffsetRepository offsetRepository,
+                            ObjectProvider<MeterRegistry> meterRegistry,
+                            @Value("${shareit.outbox.batch-size:100}") int batchSize,
+                            @Value("${shareit.outbox.max-batches:10}") int maxBatches,
+                            @Value("${shareit.outbox.settle-ms:5000}") long settleMs,
+                            @Value("${shareit.outbox.max-backoff-ms:60000}") long maxBackoffMs,
+                            @Value("${shareit.outbox.retention-ms:86400000}") long retentionMs,
+                            @Value("${shareit.outbox.gap-timeout-ms:600000}") long gapTimeoutMs) {
+        this.consumers = consumers;
+        this.eventRepository = eventRepository;
+        this.offsetRepository = offsetRepository;
+        this.meterRegistry = meterRegistry;
+        this.batchSize = batchSize;
+        this.maxBatches = maxBatches;
+        this.settle = Duration.ofMillis(settleMs);
+        this.maxBackoff = Duration.ofMillis(maxBackoffMs);
+        this.retention = Duration.ofMillis(retentionMs);
+        this.gapTimeout = Duration.ofMillis(gapTimeoutMs);
+    }
+
+    @Scheduled(initialDelayString = "${shareit.outbox.poll-ms:500}",
+            fixedDelayString = "${shareit.outbox.poll-ms:500}")
+    public void dispatch() {
+        long lastEventId = eventRepository.findMaxId().orElse(0L);
+        for (OutboxConsumer consumer : consumers) {
+            ConsumerState state = states.computeIfAbsent(consumer.name(), this::register);
+            if (LocalDateTime.now().isBefore(state.nextAttempt)) {
+                continue;
+            }
+            dispatch(consumer, state);
+            state.lag.set(Math.max(0, lastEventId - state.offset));
+        }
+    }
+
+    /**
+     * Deletes the events every consumer has handled, once they are older than the retention.
+     */
+    @Scheduled(initialDelayString = "${shareit.outbox.purge-ms:60000}",
+            fixedDelayString = "${shareit.outbox.purge-ms:60000}")
+    public void purge() {
+        long handledByAll = consumers.stream()
+                .mapToLong(consumer -> offsetRepository.findById(consumer.name())
+                        .map(OutboxOffset::getLastEventId)
+                        .orElse(0L))
+                .min()
+                .orElse(0L);
+        int deleted = eventRepository.deleteDelivered(handledByAll, LocalDateTime.now().minus(retention));
+        if (deleted > 0) {
+            log.info("Deleted {} delivered outbox events", deleted);
+        }
+    }
+
+    static List<OutboxEvent> settled(List<OutboxEvent> events, long offset, LocalDateTime settledBefore) {
+        List<OutboxEvent> settled = new ArrayList<>();
+        long expectedId = offset + 1;
+        for (OutboxEvent event : events) {
+            if (event.getId() != expectedId && event.getCreated().isAfter(settledBefore)) {
+                break;
+            }
+            settled.add(event);
+            expectedId = event.getId() + 1;
+        }
+        return settled;
+    }
+
+    /**
+     * The ids between the offset and the last settled event that none of the settled events has.
+     */
+    static List<Long> gaps(List<OutboxEvent> settled, long offset) {
+        List<Long> gaps = new ArrayList<>();
+        long expectedId = offset + 1;
+        for (OutboxEvent event : settled) {
+            for (long id = expectedId; id < event.getId(); id++) {
+                gaps.add(id);
+            }
+            expectedId = event.getId() + 1;
+        }
+        return gaps;
+    }
+
+    private void dispatch(OutboxConsumer consumer, ConsumerState state) {
+        if (!dispatchLate(consumer, state)) {
+            return;
+        }
+        for (int batch = 0; batch < maxBatches; batch++) {
+            List<OutboxEvent> events = eventRepository.findAllByIdGreaterThanOrderByIdAsc(state.offset,
+                    PageRequest.of(0, batchSize));
+            List<OutboxEvent> settled = settled(events, state.offset, LocalDateTime.now().minus(settle));
+            if (settled.isEmpty()) {
+                return;
+            }
+            try {
+                consumer.handle(settled);
+            } catch (RuntimeException e) {
+                state.failed();
+                log.warn("The outbox consumer {} failed on the events after id {}, retrying at {}",
+                        consumer.name(), state.offset, state.nextAttempt, e);
+                return;
+            }
+            long lastId = settled.get(settled.size() - 1).getId();
+            if (offsetRepository.advance(consumer.name(), state.offset, lastId) == 0) {
+                log.info("The offset of the outbox consumer {} was moved by another dispatcher", consumer.name());
+                state.offset = readOffset(consumer.name());
+                return;
+            }
+            state.passed(gaps(settled, state.offset));
+            state.handled(lastId);
+            if (settled.size() < events.size() || events.size() < batchSize) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Hands the consumer the events of passed gaps that have been committed since. Returns false when it failed.
+     */
+    private boolean dispatchLate(OutboxConsumer consumer, ConsumerState state) {
+        state.gaps.values().removeIf(passed -> passed.isBefore(LocalDateTime.now().minus(gapTimeout)));
+        if (state.gaps.isEmpty()) {
+            return true;
+        }
+        List<OutboxEvent> late = eventRepository.findAllByIdInOrderByIdAsc(state.gaps.keySet());
+        if (late.isEmpty()) {
+            return true;
+        }
+        try {
+            consumer.handle(late);
+        } catch (RuntimeException e) {
+            state.failed();
+            log.warn("The outbox consumer {} failed on events committed late, retrying at {}",
+                    consumer.name(), state.nextAttempt, e);
+            return false;
+        }
+        late.forEach(event -> state.gaps.remove(event.getId()));
+        return true;
+    }
+
+    private ConsumerState register(String consumer) {
+        ConsumerState state = new ConsumerState(readOffset(consumer));
+        MeterRegistry registry = meterRegistry.getIfAvailable();
+        if (registry != null) {
+            Gauge.builder("shareit.outbox.lag", state.lag, AtomicLong::get)
+                    .description("Outbox events the consumer has not handled yet")
+                    .tag("consumer", consumer)
+                    .register(registry);
+        }
+        return state;
+    }
+
+    private long readOffset(String consumer) {
+        return offsetRepository.findById(consumer)
+                .orElseGet(() -> {
+                    try {
+                        return offsetRepository.save(new OutboxOffset(consumer, 0L));
+                    } catch (DataIntegrityViolationException e) {
+                        return offsetRepository.findById(consumer).orElseThrow();
+                    }
+                })
+                .getLastEventId();
+    }
+
+    private class ConsumerState {
+        private final AtomicLong lag = new AtomicLong();
+        private final Map<Long, LocalDateTime> gaps = new TreeMap<>();
+        private long offset;
+        private int failures;
+        private LocalDateTime nextAttempt = LocalDateTime.MIN;
+
+        ConsumerState(long offset) {
+            this.offset = offset;
+        }
+
+        void handled(long lastId) {
+            offset = lastId;
+            failures = 0;
+            nextAttempt = LocalDateTime.MIN;
+        }
+
+        void passed(List<Long> ids) {
+            LocalDateTime now = LocalDateTime.now();
+            ids.forEach(id -> gaps.put(id, now));
+        }
+
+        void failed() {
+            failures++;
+            Duration backoff = Duration.ofMillis(100L << Math.min(failures, 20));
+            nextAttempt = LocalDateTime.now().plus(backoff.compareTo(maxBackoff) < 0 ? backoff : maxBackoff);
+        }
+    }
+}
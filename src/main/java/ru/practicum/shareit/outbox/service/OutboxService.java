@@ -0,0 +1,14 @@
+package ru.practicum.shareit.outbox.service;
+
+public interface OutboxService {
+    String BOOKING = "booking";
+    String ITEM = "item";
+    String REQUEST = "request";
+    String CREATED = "created";
+
+    /**
+     * Records a domain change in the outbox. Must be called inside the transaction making the change, so the
+     * event is stored if and only if the change is committed.
+     */
+    void publish(String aggregateType, Long aggregateId, String eventType, Object payload);
+}
@@ -0,0 +1,47 @@
+package ru.practicum.shareit.page;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
+import ru.practicum.shareit.exceptions.ValidationException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Opaque position in a listing that is paged by offset, for the listings without a cursor of their own.
+ * Clients receive it as a url-safe string and send it back unchanged to get the next page.
+ */
+@Getter
+@ToString
+@EqualsAndHashCode
+@RequiredArgsConstructor
+public class OffsetCursor {
+    private final int offset;
+
+    /**
+     * The offset to read from, the cursor when the client sent one and from otherwise.
+     */
+    public static int resolve(Integer from, String cursor) {
+        return cursor == null ? from : decode(cursor).getOffset();
+    }
+
+    public static OffsetCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int offset = Integer.parseInt(raw);
+            if (offset < 0) {
+                throw new IllegalArgumentException("Negative offset " + offset);
+            }
+            return new OffsetCursor(offset);
+        } catch (RuntimeException e) {
+            throw new ValidationException("Invalid cursor: " + cursor);
+        }
+    }
+
+    public String encode() {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(Integer.toString(offset).getBytes(StandardCharsets.UTF_8));
+    }
+}
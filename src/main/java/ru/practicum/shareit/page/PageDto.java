@@ -0,0 +1,69 @@
+package ru.practicum.shareit.page;
+
+import lombok.AccessLevel;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
+import org.springframework.data.domain.Slice;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * One page of a listing. Whether there is more is found out by reading one row past the page instead of
+ * counting the rows; nextCursor is the opaque position to continue from and is only set when there is more.
+ */
+@Getter
+@ToString
+@EqualsAndHashCode
+@RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+public class PageDto<T> {
+    private final List<T> items;
+    private final boolean hasMore;
+    private final String nextCursor;
+
+    public static <T> PageDto<T> last(List<T> items) {
+        return new PageDto<>(items, false, null);
+    }
+
+    public static <T> PageDto<T> empty() {
+        return last(Collections.emptyList());
+    }
+
+    /**
+     * Builds the page from up to size + 1 rows, the row past the page only tells that there is more.
+     */
+    public static <T> PageDto<T> of(List<T> rows, int size, Function<? super T, String> cursorOf) {
+        if (rows.size() <= size) {
+            return last(rows);
+        }
+        List<T> items = new ArrayList<>(rows.subList(0, size));
+        return new PageDto<>(items, true, cursorOf.apply(items.get(size - 1)));
+    }
+
+    /**
+     * Builds the page from a Spring Data slice, which reads one row past the page in the same way.
+     */
+    public static <T> PageDto<T> of(Slice<T> slice, Function<? super T, String> cursorOf) {
+        List<T> items = slice.getContent();
+        if (!slice.hasNext() || items.isEmpty()) {
+            return last(items);
+        }
+        return new PageDto<>(items, true, cursorOf.apply(items.get(items.size() - 1)));
+    }
+
+    /**
+     * The same page with the items converted all at once, for conversions that load data for the whole page.
+     */
+    public <R> PageDto<R> withItems(List<R> converted) {
+        return new PageDto<>(converted, hasMore, nextCursor);
+    }
+
+    public <R> PageDto<R> map(Function<? super T, ? extends R> mapper) {
+        return new PageDto<>(items.stream().map(mapper).collect(Collectors.toList()), hasMore, nextCursor);
+    }
+}
@@ -0,0 +1,25 @@
+package ru.practicum.shareit.page;
+
+import lombok.experimental.UtilityClass;
+import org.springframework.http.ResponseEntity;
+
+import java.util.List;
+
+/**
+ * Answers a list endpoint with the items of a page as the body, so clients reading a plain array keep working,
+ * and the rest of the page in headers: X-Has-More on every page, X-Next-Cursor when there is more.
+ */
+@UtilityClass
+public class PageResponse {
+    public static final String HAS_MORE_HEADER = "X-Has-More";
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    public <T> ResponseEntity<List<T>> ok(PageDto<T> page) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .header(HAS_MORE_HEADER, String.valueOf(page.isHasMore()));
+        if (page.getNextCursor() != null) {
+            response.header(NEXT_CURSOR_HEADER, page.getNextCursor());
+        }
+        return response.body(page.getItems());
+    }
+}
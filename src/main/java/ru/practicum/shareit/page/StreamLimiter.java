@@ -0,0 +1,59 @@
+package ru.practicum.shareit.page;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.exceptions.StreamAbortedException;
+
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bounds the listings written to the response while they are read, each of which holds a database connection
+ * until the client has taken the last row. At most max-concurrent of them run at once, further ones are refused
+ * with 503, and one still running after timeout-ms fails at its next row. A failure before the response has
+ * been committed is answered as usual; after that the connection is aborted, see {@link StreamAbortedException}.
+ */
+@Component
+public class StreamLimiter {
+    private final Semaphore permits;
+    private final long timeoutMs;
+
+    public StreamLimiter(@Value("${shareit.stream.max-concurrent:4}") int maxConcurrent,
+                         @Value("${shareit.stream.timeout-ms:60000}") long timeoutMs) {
+        this.permits = new Semaphore(maxConcurrent);
+        this.timeoutMs = timeoutMs;
+    }
+
+    public void stream(HttpServletResponse response, Body body) throws IOException {
+        if (!permits.tryAcquire()) {
+            throw new TaskRejectedException("Too many listings are being streamed");
+        }
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+        try {
+            body.write(() -> {
+                if (System.nanoTime() - deadline > 0) {
+                    throw new IllegalStateException("The listing took longer than " + timeoutMs + " ms");
+                }
+            });
+        } catch (IOException | RuntimeException e) {
+            if (response.isCommitted()) {
+                throw new StreamAbortedException(e);
+            }
+            response.reset();
+            throw e;
+        } finally {
+            permits.release();
+        }
+    }
+
+    /**
+     * Writes the listing, calling the deadline check before each row.
+     */
+    @FunctionalInterface
+    public interface Body {
+        void write(Runnable checkDeadline) throws IOException;
+    }
+}
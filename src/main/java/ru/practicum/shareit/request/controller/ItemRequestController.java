@@ -1,8 +1,10 @@
 package ru.practicum.shareit.request.controller;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.page.PageResponse;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.dto.ItemRequestDtoOut;
 import ru.practicum.shareit.request.service.ItemRequestService;
@@ -37,12 +39,13 @@ public class ItemRequestController {
     }
 
     @GetMapping("/all")
-    public List<ItemRequestDtoOut> getAllRequests(@RequestHeader(USER_HEADER) Long userId,
-                                                  @RequestParam(defaultValue = "0")
-                                                  @Min(0) Integer from,
-                                                  @RequestParam(defaultValue = "10")
-                                                  @Min(1) Integer size) {
-        return itemRequestService.getAllRequests(userId, from, size);
+    public ResponseEntity<List<ItemRequestDtoOut>> getAllRequests(@RequestHeader(USER_HEADER) Long userId,
+                                                                  @RequestParam(defaultValue = "0")
+                                                                  @Min(0) Integer from,
+                                                                  @RequestParam(defaultValue = "10")
+                                                                  @Min(1) Integer size,
+                                                                  @RequestParam(required = false) String cursor) {
+        return PageResponse.ok(itemRequestService.getAllRequests(userId, from, size, cursor));
     }
 
     @GetMapping("/{requestId}")
@@ -42,4 +42,13 @@ public class ItemRequestMapper {
                 .build();
     }
 
+    public ItemRequestDtoOut toRequestDtoOut(ItemRequest itemRequest, List<ItemDtoOut> items) {
+        return ItemRequestDtoOut.builder()
+                .id(itemRequest.getId())
+                .description(itemRequest.getDescription())
+                .created(itemRequest.getCreated())
+                .items(items == null ? new ArrayList<>() : items)
+                .build();
+    }
+
 }
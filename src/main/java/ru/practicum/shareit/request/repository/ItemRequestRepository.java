@@ -1,9 +1,12 @@
 package ru.practicum.shareit.request.repository;
 
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import ru.practicum.shareit.request.model.ItemRequest;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 
@@ -11,6 +14,13 @@ public interface ItemRequestRepository extends JpaRepository<ItemRequest, Long>
 
     List<ItemRequest> findAllByRequesterId(Long userId);
 
-    List<ItemRequest> findAllByRequester_IdNotOrderByCreatedDesc(Long userId, Pageable pageable);
+    Slice<ItemRequest> findAllByRequester_IdNotOrderByCreatedDescIdDesc(Long userId, Pageable pageable);
+
+    @Query("select r from ItemRequest as r " +
+            "where r.requester.id <> ?1 and " +
+            "(r.created < ?2 or (r.created = ?2 and r.id < ?3)) " +
+            "order by r.created desc, r.id desc")
+    Slice<ItemRequest> findAllByRequesterIdNotAfter(Long userId, LocalDateTime created, Long id,
+                                                    Pageable pageable);
 
 }
@@ -3,10 +3,17 @@ package ru.practicum.shareit.request.service;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.exceptions.NotFoundException;
+import ru.practicum.shareit.item.dto.ItemDtoOut;
+import ru.practicum.shareit.item.mapper.ItemMapper;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.outbox.service.OutboxService;
+import ru.practicum.shareit.page.OffsetPageRequest;
+import ru.practicum.shareit.page.PageDto;
+import ru.practicum.shareit.request.dto.ItemRequestCursor;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.dto.ItemRequestDtoOut;
 import ru.practicum.shareit.request.mapper.ItemRequestMapper;
@@ -16,7 +23,10 @@ import ru.practicum.shareit.user.mapper.UserMapper;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.service.UserService;
 
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
@@ -25,6 +35,8 @@ import java.util.stream.Collectors;
 public class ItemRequestImp implements ItemRequestService {
     private final UserService userService;
     private final ItemRequestRepository requestRepository;
+    private final ItemRepository itemRepository;
+    private final OutboxService outboxService;
 
     @Override
     @Transactional
@@ -32,33 +44,56 @@ public class ItemRequestImp implements ItemRequestService {
         User user = UserMapper.toUser(userService.findById(userId));
         ItemRequest request = ItemRequestMapper.toRequest(user, itemRequestDto);
         request.setRequester(user);
-        return ItemRequestMapper.toRequestDtoOut(requestRepository.save(request));
+        ItemRequest savedRequest = requestRepository.save(request);
+        ItemRequestDtoOut requestDtoOut = ItemRequestMapper.toRequestDtoOut(savedRequest);
+        outboxService.publish(OutboxService.REQUEST, savedRequest.getId(), OutboxService.CREATED, requestDtoOut);
+        return requestDtoOut;
     }
 
     @Override
     public List<ItemRequestDtoOut> getUserRequests(Long userId) {
-        UserMapper.toUser(userService.findById(userId));
+        userService.checkExists(userId);
         List<ItemRequest> itemRequestList = requestRepository.findAllByRequesterId(userId);
-        return itemRequestList.stream()
-                .map(ItemRequestMapper::toRequestDtoOut)
-                .collect(Collectors.toList());
+        return toRequestsDtoOut(itemRequestList);
     }
 
     @Override
-    public List<ItemRequestDtoOut> getAllRequests(Long userId, Integer from, Integer size) {
-        List<ItemRequest> itemRequestList = requestRepository
-                .findAllByRequester_IdNotOrderByCreatedDesc(userId, PageRequest.of(from / size, size));
-        return itemRequestList.stream()
-                .map(ItemRequestMapper::toRequestDtoOut)
-                .collect(Collectors.toList());
+    public PageDto<ItemRequestDtoOut> getAllRequests(Long userId, Integer from, Integer size, String cursor) {
+        Slice<ItemRequest> requests;
+        if (cursor == null) {
+            requests = requestRepository.findAllByRequester_IdNotOrderByCreatedDescIdDesc(userId,
+                    OffsetPageRequest.of(from, size));
+        } else {
+            ItemRequestCursor after = ItemRequestCursor.decode(cursor);
+            requests = requestRepository.findAllByRequesterIdNotAfter(userId, after.getCreated(), after.getId(),
+                    OffsetPageRequest.of(0, size));
+        }
+        PageDto<ItemRequest> page = PageDto.of(requests, request -> ItemRequestCursor.of(request).encode());
+        return page.withItems(toRequestsDtoOut(page.getItems()));
     }
 
     @Override
     public ItemRequestDtoOut getRequestById(Long userId, Long requestId) {
-        userService.findById(userId);
+        userService.checkExists(userId);
         ItemRequest itemRequest = requestRepository.findById(requestId)
                 .orElseThrow(() -> new NotFoundException("Request with id= " + requestId + " doesn't exist"));
 
-        return ItemRequestMapper.toRequestDtoOut(itemRequest);
+        return toRequestsDtoOut(List.of(itemRequest)).get(0);
+    }
+
+    private List<ItemRequestDtoOut> toRequestsDtoOut(List<ItemRequest> requests) {
+        if (requests.isEmpty()) {
+            return Collections.emptyList();
+        }
+        Set<Long> requestIds = requests.stream()
+                .map(ItemRequest::getId)
+                .collect(Collectors.toSet());
+        Map<Long, List<ItemDtoOut>> items = itemRepository.findAllByRequestIdIn(requestIds)
+                .stream()
+                .map(ItemMapper::toItemDtoOut)
+                .collect(Collectors.groupingBy(ItemDtoOut::getRequestId, Collectors.toList()));
+        return requests.stream()
+                .map(request -> ItemRequestMapper.toRequestDtoOut(request, items.get(request.getId())))
+                .collect(Collectors.toList());
     }
 }
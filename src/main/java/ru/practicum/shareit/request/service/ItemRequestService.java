@@ -1,5 +1,6 @@
 package ru.practicum.shareit.request.service;
 
+import ru.practicum.shareit.page.PageDto;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.dto.ItemRequestDtoOut;
 
@@ -11,7 +12,7 @@ public interface ItemRequestService {
 
     List<ItemRequestDtoOut> getUserRequests(Long userId);
 
-    List<ItemRequestDtoOut> getAllRequests(Long userId, Integer from, Integer size);
+    PageDto<ItemRequestDtoOut> getAllRequests(Long userId, Integer from, Integer size, String cursor);
 
     ItemRequestDtoOut getRequestById(Long userId, Long requestId);
 }
@@ -1,14 +1,33 @@
 package ru.practicum.shareit.user.controller;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.page.PageResponse;
+import ru.practicum.shareit.page.StreamLimiter;
 import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.dto.UserImportResult;
 import ru.practicum.shareit.user.markers.Create;
 import ru.practicum.shareit.user.markers.Update;
+import ru.practicum.shareit.user.service.UserImportService;
 import ru.practicum.shareit.user.service.UserService;
 
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -19,7 +38,12 @@ import java.util.List;
 @RequiredArgsConstructor
 @RequestMapping(path = "/users")
 public class UserController {
+    static final int IMPORT_CHUNK_SIZE = 1000;
+
     private final UserService userService;
+    private final UserImportService userImportService;
+    private final ObjectMapper objectMapper;
+    private final StreamLimiter streamLimiter;
 
     @PostMapping
     public UserDto add(@Validated({Create.class}) @RequestBody UserDto userDto) {
@@ -27,6 +51,51 @@ public class UserController {
         return userService.add(userDto);
     }
 
+    @PostMapping(path = "/batch", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public List<UserImportResult> addAll(@RequestBody List<UserDto> users) {
+        log.info("Request to add {} users", users.size());
+        List<UserImportResult> results = new ArrayList<>(users.size());
+        for (int from = 0; from < users.size(); from += IMPORT_CHUNK_SIZE) {
+            results.addAll(userImportService.addAll(
+                    users.subList(from, Math.min(from + IMPORT_CHUNK_SIZE, users.size())), from));
+        }
+        return results;
+    }
+
+    /**
+     * Newline-delimited variant of the bulk import: rows are read, imported and answered chunk by chunk,
+     * so neither the request nor the response is held in memory. Blank lines are skipped.
+     */
+    @PostMapping(path = "/batch", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public void addAll(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        log.info("Request to add users from a stream");
+        ObjectReader reader = objectMapper.readerFor(UserDto.class);
+        ObjectWriter writer = objectMapper.writerFor(UserImportResult.class);
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        response.setCharacterEncoding("UTF-8");
+        BufferedReader in = request.getReader();
+        Writer out = response.getWriter();
+
+        List<UserDto> chunk = new ArrayList<>(IMPORT_CHUNK_SIZE);
+        int imported = 0;
+        String line;
+        while ((line = in.readLine()) != null) {
+            if (line.isBlank()) {
+                continue;
+            }
+            chunk.add(readRow(reader, line));
+            if (chunk.size() == IMPORT_CHUNK_SIZE) {
+                writeRows(writer, out, userImportService.addAll(chunk, imported));
+                imported += chunk.size();
+                chunk = new ArrayList<>(IMPORT_CHUNK_SIZE);
+            }
+        }
+        if (!chunk.isEmpty()) {
+            writeRows(writer, out, userImportService.addAll(chunk, imported));
+        }
+        out.flush();
+    }
+
     @PatchMapping("/{userId}")
     public UserDto update(@PathVariable Long userId, @Validated({Update.class}) @RequestBody UserDto userDto) {
         log.info("Request to update a user with id= {}", userId);
@@ -46,9 +115,58 @@ public class UserController {
     }
 
     @GetMapping
-    public List<UserDto> getAllUsers() {
-        log.info("Request to get all users");
-        return userService.getAllUsers();
+    public ResponseEntity<List<UserDto>> getAllUsers(@RequestParam(required = false) String cursor,
+                                                     @RequestParam(required = false) Integer size) {
+        log.info("Request to get users after cursor {} with size {}", cursor, size);
+        return PageResponse.ok(userService.getAllUsers(cursor, size));
+    }
+
+    /**
+     * All users as one JSON array, written to the response while they are read, without the page cap, within
+     * the limits of the {@link StreamLimiter}. Rows go out as the buffers fill rather than one flush each, and
+     * the generator isn't closed on failure, which would end the array.
+     */
+    @GetMapping(params = "stream=true")
+    public void streamAllUsers(HttpServletResponse response) throws IOException {
+        log.info("Request to stream all users");
+        streamLimiter.stream(response, checkDeadline -> {
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            response.setCharacterEncoding("UTF-8");
+            JsonGenerator generator = objectMapper.getFactory().createGenerator(response.getWriter());
+            ObjectWriter writer = objectMapper.writerFor(UserDto.class)
+                    .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+            generator.writeStartArray();
+            userService.streamAllUsers(user -> {
+                checkDeadline.run();
+                writeUser(writer, generator, user);
+            });
+            generator.writeEndArray();
+            generator.flush();
+        });
+    }
+
+    private void writeUser(ObjectWriter writer, JsonGenerator generator, UserDto user) {
+        try {
+            writer.writeValue(generator, user);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private UserDto readRow(ObjectReader reader, String line) {
+        try {
+            return reader.readValue(line);
+        } catch (JsonProcessingException e) {
+            return null;
+        }
+    }
+
+    private void writeRows(ObjectWriter writer, Writer out, List<UserImportResult> results) throws IOException {
+        for (UserImportResult result : results) {
+            out.write(writer.writeValueAsString(result));
+            out.write('\n');
+        }
+        out.flush();
     }
 
 
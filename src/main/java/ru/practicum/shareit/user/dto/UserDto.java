@@ -9,6 +9,7 @@ import ru.practicum.shareit.user.markers.Update;
 
 import javax.validation.constraints.Email;
 import javax.validation.constraints.NotBlank;
+import javax.validation.constraints.Size;
 
 @Data
 @AllArgsConstructor
@@ -17,8 +18,10 @@ import javax.validation.constraints.NotBlank;
 public class UserDto {
     private Long id;
     @NotBlank(groups = {Create.class})
+    @Size(max = 255, groups = {Create.class, Update.class})
     private String name;
     @Email(groups = {Create.class, Update.class})
     @NotBlank(groups = {Create.class})
+    @Size(max = 512, groups = {Create.class, Update.class})
     private String email;
 }
@@ -0,0 +1,27 @@
+package ru.practicum.shareit.user.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Outcome of one row of a bulk import: the created user or the reason the row was rejected.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class UserImportResult {
+    private int index;
+    private UserDto user;
+    private String error;
+
+    public static UserImportResult created(int index, UserDto user) {
+        return new UserImportResult(index, user, null);
+    }
+
+    public static UserImportResult rejected(int index, String error) {
+        return new UserImportResult(index, null, error);
+    }
+}
@@ -0,0 +1,25 @@
+package ru.practicum.shareit.user.repository;
+
+import ru.practicum.shareit.user.model.User;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+
+public interface UserBatchRepository {
+
+    /**
+     * Persists the users, flushing and clearing the persistence context every JDBC batch, so Hibernate
+     * sends batched inserts and the context doesn't grow with the import. The users come back detached.
+     */
+    List<User> insertAll(List<User> users);
+
+    Set<String> findExistingEmails(Collection<String> emails);
+
+    /**
+     * Passes every user, in id order, to the action while reading them through a forward-only cursor.
+     * The persistence context is cleared every fetch; the action must not keep the entities around.
+     */
+    void forEachUser(Consumer<User> action);
+}
@@ -1,8 +1,20 @@
 package ru.practicum.shareit.user.repository;
 
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import ru.practicum.shareit.config.CacheConfig;
 import ru.practicum.shareit.user.model.User;
 
-public interface UserRepository extends JpaRepository<User, Long> {
+public interface UserRepository extends JpaRepository<User, Long>, UserBatchRepository {
 
+    /**
+     * Only existing ids are cached: an id that doesn't exist yet may be assigned to the next new user.
+     */
+    @Override
+    @Cacheable(cacheNames = CacheConfig.USER_IDS, key = "#p0", unless = "!#result")
+    boolean existsById(Long id);
+
+    Slice<User> findAllByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
 }
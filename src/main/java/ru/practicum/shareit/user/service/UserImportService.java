@@ -0,0 +1,15 @@
+package ru.practicum.shareit.user.service;
+
+import ru.practicum.shareit.user.dto.UserImportResult;
+import ru.practicum.shareit.user.dto.UserDto;
+
+import java.util.List;
+
+public interface UserImportService {
+
+    /**
+     * Validates the rows and inserts the valid ones in one transaction. A {@code null} row stands for
+     * a row that couldn't be read. Result indexes start at {@code firstIndex}.
+     */
+    List<UserImportResult> addAll(List<UserDto> users, int firstIndex);
+}
@@ -0,0 +1,127 @@
+package ru.practicum.shareit.user.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.retry.annotation.Backoff;
+import org.springframework.retry.annotation.Recover;
+import org.springframework.retry.annotation.Retryable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.exceptions.NotUniqueEmailException;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.dto.UserImportResult;
+import ru.practicum.shareit.user.mapper.UserMapper;
+import ru.practicum.shareit.user.markers.Create;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import javax.validation.ConstraintViolation;
+import javax.validation.Validator;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class UserImportServiceImpl implements UserImportService {
+    static final String MALFORMED_ROW = "Row is empty or isn't a valid user";
+    static final String CONFLICTING_ROW = "Row wasn't inserted, concurrent requests kept adding the same emails";
+    static final String EMAIL_CONSTRAINT = "uq_user_email";
+
+    private final UserRepository userRepository;
+    private final Validator validator;
+
+    /**
+     * A user created concurrently with an email of the chunk makes the insert fail on the unique constraint.
+     * The chunk is then imported again in a new transaction, which finds the email taken and rejects its row.
+     * Any other integrity violation isn't retried, repeating the insert wouldn't change it.
+     */
+    @Override
+    @Transactional
+    @Retryable(value = NotUniqueEmailException.class,
+            maxAttemptsExpression = "${shareit.retry.max-attempts:3}",
+            backoff = @Backoff(delayExpression = "${shareit.retry.delay-ms:50}", multiplier = 2))
+    public List<UserImportResult> addAll(List<UserDto> users, int firstIndex) {
+        UserImportResult[] results = new UserImportResult[users.size()];
+        List<Integer> acceptedRows = validateAll(users, firstIndex, results);
+        List<User> accepted = acceptedRows.stream()
+                .map(users::get)
+                .map(userDto -> new User(null, userDto.getName(), userDto.getEmail()))
+                .collect(Collectors.toList());
+
+        try {
+            userRepository.insertAll(accepted);
+        } catch (DataIntegrityViolationException e) {
+            if (e.getMostSpecificCause().getMessage().toLowerCase(Locale.ROOT).contains(EMAIL_CONSTRAINT)) {
+                throw new NotUniqueEmailException("An email of the chunk was taken concurrently", e);
+            }
+            throw e;
+        }
+        for (int i = 0; i < accepted.size(); i++) {
+            int row = acceptedRows.get(i);
+            results[row] = UserImportResult.created(firstIndex + row, UserMapper.toUserDto(accepted.get(i)));
+        }
+        return List.of(results);
+    }
+
+    /**
+     * Every attempt lost the race: nothing of the chunk was inserted. The rows are still answered one by one,
+     * the valid ones with CONFLICTING_ROW, so that a streamed import goes on with the next chunk.
+     */
+    @Recover
+    public List<UserImportResult> addAll(NotUniqueEmailException e, List<UserDto> users, int firstIndex) {
+        log.warn("Users from row {} weren't imported after repeated email conflicts", firstIndex, e);
+        UserImportResult[] results = new UserImportResult[users.size()];
+        for (int row : validateAll(users, firstIndex, results)) {
+            results[row] = UserImportResult.rejected(firstIndex + row, CONFLICTING_ROW);
+        }
+        return List.of(results);
+    }
+
+    /**
+     * Fills in the results of the rejected rows and returns the positions of the accepted ones.
+     */
+    private List<Integer> validateAll(List<UserDto> users, int firstIndex, UserImportResult[] results) {
+        Set<String> existingEmails = userRepository.findExistingEmails(users.stream()
+                .filter(Objects::nonNull)
+                .map(UserDto::getEmail)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet()));
+
+        Set<String> batchEmails = new HashSet<>();
+        List<Integer> acceptedRows = new ArrayList<>();
+        for (int row = 0; row < users.size(); row++) {
+            String error = validate(users.get(row), existingEmails, batchEmails);
+            if (error != null) {
+                results[row] = UserImportResult.rejected(firstIndex + row, error);
+            } else {
+                acceptedRows.add(row);
+            }
+        }
+        return acceptedRows;
+    }
+
+    private String validate(UserDto userDto, Set<String> existingEmails, Set<String> batchEmails) {
+        if (userDto == null) {
+            return MALFORMED_ROW;
+        }
+        Set<ConstraintViolation<UserDto>> violations = validator.validate(userDto, Create.class);
+        if (!violations.isEmpty()) {
+            return violations.stream()
+                    .sorted(Comparator.comparing(violation -> violation.getPropertyPath().toString()))
+                    .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                    .collect(Collectors.joining("; "));
+        }
+        if (existingEmails.contains(userDto.getEmail()) || !batchEmails.add(userDto.getEmail())) {
+            return NotUniqueEmailException.message(userDto.getEmail());
+        }
+        return null;
+    }
+}
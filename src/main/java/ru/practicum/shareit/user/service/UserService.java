@@ -1,10 +1,12 @@
 package ru.practicum.shareit.user.service;
 
+import ru.practicum.shareit.page.PageDto;
 import ru.practicum.shareit.user.dto.UserDto;
 
-import java.util.List;
+import java.util.function.Consumer;
 
 public interface UserService {
+    int MAX_PAGE_SIZE = 1000;
 
     UserDto add(UserDto userDto);
 
@@ -12,9 +14,16 @@ public interface UserService {
 
     UserDto findById(Long id);
 
+    void checkExists(Long id);
+
     void delete(Long id);
 
-    List<UserDto> getAllUsers();
+    /**
+     * One page of users ordered by id, starting after the cursor when it is given. The page size is capped
+     * at {@link #MAX_PAGE_SIZE}, also when no size is requested.
+     */
+    PageDto<UserDto> getAllUsers(String cursor, Integer size);
 
+    void streamAllUsers(Consumer<UserDto> consumer);
 
 }
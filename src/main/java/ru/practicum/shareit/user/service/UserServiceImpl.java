@@ -1,16 +1,22 @@
 package ru.practicum.shareit.user.service;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.config.CacheConfig;
 import ru.practicum.shareit.exceptions.NotFoundException;
+import ru.practicum.shareit.exceptions.ValidationException;
+import ru.practicum.shareit.page.PageDto;
+import ru.practicum.shareit.user.dto.UserCursor;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.mapper.UserMapper;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
-import java.util.List;
-import java.util.stream.Collectors;
+import java.util.function.Consumer;
 
 @Service
 @RequiredArgsConstructor
@@ -29,6 +35,7 @@ public class UserServiceImpl implements UserService {
 
     @Override
     @Transactional
+    @CacheEvict(cacheNames = CacheConfig.USERS, key = "#id")
     public UserDto update(Long id, UserDto userDto) {
         User user = userRepository.findById(id)
                 .orElseThrow(() -> new NotFoundException("User with id= " + id + " doesn't exist."));
@@ -45,6 +52,7 @@ public class UserServiceImpl implements UserService {
     }
 
     @Override
+    @Cacheable(cacheNames = CacheConfig.USERS, key = "#id")
     public UserDto findById(Long id) {
         User user = userRepository.findById(id)
                 .orElseThrow(() -> new NotFoundException("User with id= " + id + " doesn't exist."));
@@ -52,18 +60,35 @@ public class UserServiceImpl implements UserService {
         return UserMapper.toUserDto(user);
     }
 
+    @Override
+    public void checkExists(Long id) {
+        if (!userRepository.existsById(id)) {
+            throw new NotFoundException("User with id= " + id + " doesn't exist.");
+        }
+    }
+
     @Override
     @Transactional
+    @CacheEvict(cacheNames = {CacheConfig.USERS, CacheConfig.USER_IDS}, key = "#id")
     public void delete(Long id) {
         userRepository.deleteById(id);
     }
 
     @Override
-    public List<UserDto> getAllUsers() {
-        return userRepository.findAll()
-                .stream()
-                .map(UserMapper::toUserDto)
-                .collect(Collectors.toList());
+    public PageDto<UserDto> getAllUsers(String cursor, Integer size) {
+        if (size != null && size < 1) {
+            throw new ValidationException("Page size must be positive: " + size);
+        }
+        long after = cursor == null ? 0L : UserCursor.decode(cursor).getId();
+        int limit = size == null ? MAX_PAGE_SIZE : Math.min(size, MAX_PAGE_SIZE);
+        return PageDto.of(userRepository.findAllByIdGreaterThanOrderByIdAsc(after, PageRequest.of(0, limit))
+                        .map(UserMapper::toUserDto),
+                user -> UserCursor.of(user).encode());
+    }
+
+    @Override
+    public void streamAllUsers(Consumer<UserDto> consumer) {
+        userRepository.forEachUser(user -> consumer.accept(UserMapper.toUserDto(user)));
     }
 
 }
@@ -0,0 +1,9 @@
+CREATE TABLE IF NOT EXISTS item_booking_summary (
+  item_id BIGINT PRIMARY KEY NOT NULL,
+  last_booking_id BIGINT,
+  next_booking_id BIGINT,
+  valid_until TIMESTAMP WITHOUT TIME ZONE,
+  CONSTRAINT fk_item_booking_summary_item_id FOREIGN KEY (item_id) REFERENCES items (id) ON DELETE CASCADE,
+  CONSTRAINT fk_item_booking_summary_last_id FOREIGN KEY (last_booking_id) REFERENCES bookings (id) ON DELETE CASCADE,
+  CONSTRAINT fk_item_booking_summary_next_id FOREIGN KEY (next_booking_id) REFERENCES bookings (id) ON DELETE CASCADE
+);
@@ -0,0 +1,189 @@
+package ru.practicum.shareit;
+
+import lombok.SneakyThrows;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.Status;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.CommentRepository;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemSearchEngine;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.repository.ItemRequestRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import javax.persistence.EntityManagerFactory;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static ru.practicum.shareit.item.controller.ItemController.USER_HEADER;
+
+/**
+ * Guards the read endpoints against N+1 loading: the number of JDBC statements per request must not grow
+ * with the number of rows returned. Each request is sent once before measuring, so the counts are
+ * for the steady state with item booking summaries in place, the requesting user and search pages cached.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:statements",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "shareit.outbox.dispatcher.enabled=false",
+        "logging.level.org.hibernate.engine.internal.StatisticalLoggingSessionEventListener=WARN"})
+@AutoConfigureMockMvc
+class SqlStatementCountTest {
+    private static final int ROWS = 3;
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    UserRepository userRepository;
+
+    @Autowired
+    ItemRepository itemRepository;
+
+    @Autowired
+    ItemRequestRepository requestRepository;
+
+    @Autowired
+    BookingRepository bookingRepository;
+
+    @Autowired
+    CommentRepository commentRepository;
+
+    @Autowired
+    ItemSearchEngine itemSearchEngine;
+
+    private User owner;
+    private User booker;
+    private Item item;
+    private Long requestId;
+
+    @BeforeEach
+    void addData() {
+        owner = userRepository.save(User.builder().name("Owner").email("owner@yandex.ru").build());
+        booker = userRepository.save(User.builder().name("Booker").email("booker@yandex.ru").build());
+        List<User> requesters = new ArrayList<>();
+        for (int i = 0; i < ROWS; i++) {
+            requesters.add(userRepository.save(User.builder()
+                    .name("Requester " + i)
+                    .email("requester" + i + "@yandex.ru")
+                    .build()));
+        }
+
+        for (int i = 0; i < ROWS; i++) {
+            ItemRequest request = requestRepository.save(ItemRequest.builder()
+                    .description("Request " + i)
+                    .requester(booker)
+                    .build());
+            requestId = request.getId();
+            for (User requester : requesters) {
+                Item requestItem = Item.builder()
+                        .name("Drill " + i)
+                        .description("Drill for request " + i)
+                        .available(true)
+                        .owner(requester)
+                        .request(request)
+                        .build();
+                itemSearchEngine.index(itemRepository.save(requestItem));
+            }
+        }
+
+        for (int i = 0; i < ROWS; i++) {
+            Item ownerItem = itemRepository.save(Item.builder()
+                    .name("Saw " + i)
+                    .description("Hand saw " + i)
+                    .available(true)
+                    .owner(owner)
+                    .build());
+            itemSearchEngine.index(ownerItem);
+            item = ownerItem;
+            for (int j = 0; j < ROWS; j++) {
+                User author = requesters.get(j);
+                bookingRepository.save(new Booking(ownerItem, LocalDateTime.now().minusDays(j + 2L),
+                        LocalDateTime.now().minusDays(j + 1L), author, Status.APPROVED));
+                bookingRepository.save(new Booking(ownerItem, LocalDateTime.now().plusDays(j + 1L),
+                        LocalDateTime.now().plusDays(j + 2L), booker, Status.APPROVED));
+                commentRepository.save(new Comment("Comment " + j, ownerItem, author));
+            }
+        }
+    }
+
+    @AfterEach
+    void deleteData() {
+        commentRepository.deleteAll();
+        bookingRepository.deleteAll();
+        itemRepository.deleteAll();
+        requestRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void whenGetUserRequests() {
+        assertStatements(2, get("/requests").header(USER_HEADER, booker.getId()));
+    }
+
+    @Test
+    void whenGetAllRequests() {
+        assertStatements(2, get("/requests/all").header(USER_HEADER, owner.getId()));
+    }
+
+    @Test
+    void whenGetRequestById() {
+        assertStatements(2, get("/requests/{requestId}", requestId).header(USER_HEADER, owner.getId()));
+    }
+
+    @Test
+    void whenGetOwnerItems() {
+        assertStatements(3, get("/items").header(USER_HEADER, owner.getId()));
+    }
+
+    @Test
+    void whenGetItemByIdAsOwner() {
+        assertStatements(3, get("/items/{itemId}", item.getId()).header(USER_HEADER, owner.getId()));
+    }
+
+    @Test
+    void whenSearchItems() {
+        assertStatements(0, get("/items/search").param("text", "drill").header(USER_HEADER, owner.getId()));
+    }
+
+    @Test
+    void whenGetBookerBookings() {
+        assertStatements(1, get("/bookings").header(USER_HEADER, booker.getId()));
+    }
+
+    @Test
+    void whenGetOwnerBookings() {
+        assertStatements(1, get("/bookings/owner").header(USER_HEADER, owner.getId()));
+    }
+
+    @SneakyThrows
+    private void assertStatements(long expected, MockHttpServletRequestBuilder request) {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        mockMvc.perform(request).andExpect(status().isOk());
+        statistics.clear();
+
+        mockMvc.perform(request).andExpect(status().isOk());
+
+        assertEquals(expected, statistics.getPrepareStatementCount());
+    }
+}
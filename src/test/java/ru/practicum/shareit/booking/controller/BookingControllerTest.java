@@ -6,6 +6,8 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.mock.web.MockHttpServletResponse;
 import org.springframework.test.web.servlet.MockMvc;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingDtoOut;
@@ -14,19 +16,24 @@ import ru.practicum.shareit.booking.model.Status;
 import ru.practicum.shareit.booking.setvice.BookingService;
 import ru.practicum.shareit.item.mapper.ItemMapper;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.page.PageDto;
+import ru.practicum.shareit.page.StreamLimiter;
 import ru.practicum.shareit.user.mapper.UserMapper;
 import ru.practicum.shareit.user.model.User;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.function.Consumer;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 import static ru.practicum.shareit.item.controller.ItemController.USER_HEADER;
 
 @WebMvcTest(controllers = BookingController.class)
+@Import(StreamLimiter.class)
 class BookingControllerTest {
 
     @Autowired
@@ -142,7 +149,7 @@ class BookingControllerTest {
                         .header(USER_HEADER, user.getId()))
                 .andExpect(status().isBadRequest());
 
-        verify(bookingService, never()).findAllForBooker(user.getId(), "ALL", from, size);
+        verify(bookingService, never()).findAllForBooker(user.getId(), "ALL", from, size, null);
     }
 
     @Test
@@ -158,7 +165,7 @@ class BookingControllerTest {
                         .header(USER_HEADER, user.getId()))
                 .andExpect(status().isBadRequest());
 
-        verify(bookingService, never()).findAllForOwner(user.getId(), "ALL", from, size);
+        verify(bookingService, never()).findAllForOwner(user.getId(), "ALL", from, size, null);
     }
 
     @Test
@@ -251,8 +258,8 @@ class BookingControllerTest {
         int size = 10;
         String state = "ALL";
 
-        when(bookingService.findAllForBooker(user.getId(), State.ALL.toString(), 0, 10))
-                .thenReturn(List.of(bookingDtoOut));
+        when(bookingService.findAllForBooker(user.getId(), State.ALL.toString(), 0, 10, null))
+                .thenReturn(PageDto.last(List.of(bookingDtoOut)));
 
         String result = mockMvc.perform(get("/bookings")
                         .param("from", String.valueOf(from))
@@ -298,8 +305,8 @@ class BookingControllerTest {
         int size = 10;
         String state = "ALL";
 
-        when(bookingService.findAllForOwner(user.getId(), State.ALL.toString(), 0, 10))
-                .thenReturn(List.of(bookingDtoOut));
+        when(bookingService.findAllForOwner(user.getId(), State.ALL.toString(), 0, 10, null))
+                .thenReturn(PageDto.last(List.of(bookingDtoOut)));
 
         String result = mockMvc.perform(get("/bookings/owner")
                         .param("from", String.valueOf(from))
@@ -337,4 +344,91 @@ class BookingControllerTest {
                 result);
 
     }
-}
\ No newline at end of file
+
+    @Test
+    @SneakyThrows
+    void whenExportOwnerBookingsAsNdjson() {
+        doAnswer(invocation -> {
+            Consumer<BookingDtoOut> consumer = invocation.getArgument(2);
+            consumer.accept(bookingDtoOut);
+            consumer.accept(bookingDtoOut);
+            return null;
+        }).when(bookingService).exportAllForOwner(eq(user.getId()), eq("ALL"), any());
+
+        MockHttpServletResponse response = mockMvc.perform(get("/bookings/owner/export")
+                        .header(USER_HEADER, user.getId()))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse();
+
+        String line = objectMapper.writeValueAsString(bookingDtoOut);
+        assertEquals("application/x-ndjson;charset=UTF-8", response.getContentType());
+        assertEquals(line + "\n" + line + "\n", response.getContentAsString());
+    }
+
+    @Test
+    @SneakyThrows
+    void whenExportOwnerBookingsAsCsv() {
+        Item quotedItem = Item.builder()
+                .id(1L)
+                .name("Lopata, \"big\"")
+                .description("Lopata description")
+                .owner(user)
+                .build();
+        BookingDtoOut quotedItemBooking = BookingDtoOut.builder()
+                .id(1L)
+                .start(bookingDtoOut.getStart())
+                .end(bookingDtoOut.getEnd())
+                .status(Status.WAITING)
+                .item(ItemMapper.toItemDtoOut(quotedItem))
+                .booker(UserMapper.toUserDto(user))
+                .build();
+        doAnswer(invocation -> {
+            Consumer<BookingDtoOut> consumer = invocation.getArgument(2);
+            consumer.accept(quotedItemBooking);
+            return null;
+        }).when(bookingService).exportAllForOwner(eq(user.getId()), eq("PAST"), any());
+
+        String result = mockMvc.perform(get("/bookings/owner/export")
+                        .header(USER_HEADER, user.getId())
+                        .param("state", "PAST")
+                        .param("format", "csv"))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+
+        assertEquals("id,start,end,status,itemId,itemName,bookerId,bookerName\n"
+                + "1,2024-05-24T12:34:56,2024-05-25T12:34:56,WAITING,1,\"Lopata, \"\"big\"\"\",1,Professor\n", result);
+    }
+
+    @Test
+    @SneakyThrows
+    void whenExportFailsBeforeTheResponseIsCommittedThenOnlyTheErrorIsReturned() {
+        doAnswer(invocation -> {
+            Consumer<BookingDtoOut> consumer = invocation.getArgument(2);
+            consumer.accept(bookingDtoOut);
+            throw new IllegalStateException("The database went away");
+        }).when(bookingService).exportAllForOwner(eq(user.getId()), eq("ALL"), any());
+
+        String result = mockMvc.perform(get("/bookings/owner/export")
+                        .header(USER_HEADER, user.getId()))
+                .andExpect(status().isInternalServerError())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+
+        assertEquals("{\"error\":\"The database went away\"}", result);
+    }
+
+    @Test
+    @SneakyThrows
+    void whenExportOwnerBookingsWithUnknownFormatShouldReturnBadRequest() {
+        mockMvc.perform(get("/bookings/owner/export")
+                        .header(USER_HEADER, user.getId())
+                        .param("format", "xml"))
+                .andExpect(status().isBadRequest());
+
+        verify(bookingService, never()).exportAllForOwner(anyLong(), anyString(), any());
+    }
+}
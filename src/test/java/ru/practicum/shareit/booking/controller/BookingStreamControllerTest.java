@@ -0,0 +1,123 @@
+package ru.practicum.shareit.booking.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ru.practicum.shareit.booking.dto.BookingDtoOut;
+import ru.practicum.shareit.booking.event.BookingEventBroadcaster;
+import ru.practicum.shareit.booking.model.Status;
+import ru.practicum.shareit.booking.setvice.BookingService;
+import ru.practicum.shareit.exceptions.NotFoundException;
+import ru.practicum.shareit.item.dto.ItemDtoOut;
+import ru.practicum.shareit.user.dto.UserDto;
+
+import java.time.LocalDateTime;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static ru.practicum.shareit.config.BookingStreamConfig.BOOKING_STREAM_EXECUTOR;
+import static ru.practicum.shareit.item.controller.ItemController.USER_HEADER;
+
+@WebMvcTest(controllers = BookingStreamController.class)
+class BookingStreamControllerTest {
+
+    @Autowired
+    ObjectMapper objectMapper;
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @MockBean
+    BookingService bookingService;
+
+    @MockBean
+    BookingEventBroadcaster eventBroadcaster;
+
+    private final BookingDtoOut bookingDtoOut = BookingDtoOut.builder()
+            .id(7L)
+            .start(LocalDateTime.of(2024, 5, 24, 12, 34, 56))
+            .end(LocalDateTime.of(2024, 5, 25, 12, 34, 56))
+            .status(Status.WAITING)
+            .item(ItemDtoOut.builder().id(1L).name("Lopata").build())
+            .booker(UserDto.builder().id(2L).name("Professor").build())
+            .build();
+
+    @TestConfiguration
+    static class StreamExecutorConfig {
+        @Bean(BOOKING_STREAM_EXECUTOR)
+        TaskExecutor bookingStreamExecutor() {
+            return new SyncTaskExecutor();
+        }
+    }
+
+    @Test
+    @SneakyThrows
+    void whenStreamBookerBookingsThenEveryBookingIsAnEvent() {
+        doAnswer(invocation -> {
+            Consumer<BookingDtoOut> consumer = invocation.getArgument(2);
+            consumer.accept(bookingDtoOut);
+            return null;
+        }).when(bookingService).exportAllForBooker(eq(2L), eq("WAITING"), any());
+
+        String events = stream(get("/bookings/stream").header(USER_HEADER, 2L).param("state", "WAITING"));
+
+        assertEquals("id:7\nevent:booking\ndata:" + objectMapper.writeValueAsString(bookingDtoOut) + "\n\n"
+                + "event:complete\ndata:1\n\n", events);
+    }
+
+    @Test
+    @SneakyThrows
+    void whenStreamOwnerBookingsOfUnknownUserThenErrorEvent() {
+        doThrow(new NotFoundException("User with id= 9 doesn't exist."))
+                .when(bookingService).exportAllForOwner(eq(9L), eq("ALL"), any());
+
+        String events = stream(get("/bookings/owner/stream").header(USER_HEADER, 9L));
+
+        assertEquals("event:error\ndata:{\"error\":\"User with id= 9 doesn't exist.\"}\n\n", events);
+    }
+
+    @Test
+    @SneakyThrows
+    void whenSubscribeThenEventStreamStaysOpen() {
+        when(eventBroadcaster.subscribe(2L)).thenReturn(new SseEmitter());
+
+        mockMvc.perform(get("/bookings/events").header(USER_HEADER, 2L))
+                .andExpect(request().asyncStarted())
+                .andExpect(status().isOk());
+
+        verify(eventBroadcaster).subscribe(2L);
+    }
+
+    @SneakyThrows
+    private String stream(RequestBuilder requestBuilder) {
+        MvcResult result = mockMvc.perform(requestBuilder)
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        return mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+    }
+}
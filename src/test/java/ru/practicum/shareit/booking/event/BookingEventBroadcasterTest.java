@@ -0,0 +1,209 @@
+package ru.practicum.shareit.booking.event;
+
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.Status;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.setvice.BookingService;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static ru.practicum.shareit.item.controller.ItemController.USER_HEADER;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:booking-events")
+@AutoConfigureMockMvc
+class BookingEventBroadcasterTest {
+    private static final long WAIT_MS = 5_000;
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @Autowired
+    BookingEventBroadcaster broadcaster;
+
+    @Autowired
+    BookingService bookingService;
+
+    @Autowired
+    UserService userService;
+
+    @Autowired
+    ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    TransactionTemplate transactionTemplate;
+
+    @Autowired
+    UserRepository userRepository;
+
+    @Autowired
+    ItemRepository itemRepository;
+
+    @Autowired
+    BookingRepository bookingRepository;
+
+    private User owner;
+    private User booker;
+    private Booking booking;
+
+    @BeforeEach
+    void addBooking() {
+        owner = userRepository.save(User.builder().name("Owner").email("owner@yandex.ru").build());
+        booker = userRepository.save(User.builder().name("Booker").email("booker@yandex.ru").build());
+        Item item = itemRepository.save(Item.builder()
+                .name("Drill")
+                .description("Cordless drill")
+                .available(true)
+                .owner(owner)
+                .build());
+        booking = bookingRepository.save(new Booking(item, LocalDateTime.now().plusDays(1L),
+                LocalDateTime.now().plusDays(2L), booker, Status.WAITING));
+    }
+
+    @AfterEach
+    void deleteAll() {
+        bookingRepository.deleteAll();
+        itemRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    @SneakyThrows
+    void whenBookingIsApprovedThenBookerAndOwnerReceiveTheEvent() {
+        MockHttpServletResponse bookerEvents = subscribe(booker.getId());
+        MockHttpServletResponse ownerEvents = subscribe(owner.getId());
+
+        bookingService.update(owner.getId(), booking.getId(), true);
+
+        String expected = "id:" + booking.getId() + "\nevent:approved\ndata:{\"id\":" + booking.getId();
+        awaitContent(bookerEvents, expected);
+        awaitContent(ownerEvents, expected);
+        assertTrue(bookerEvents.getContentAsString().contains("\"status\":\"APPROVED\""));
+    }
+
+    @Test
+    @SneakyThrows
+    void whenTransactionRollsBackThenNoEventIsSent() {
+        MockHttpServletResponse bookerEvents = subscribe(booker.getId());
+
+        transactionTemplate.executeWithoutResult(status -> {
+            eventPublisher.publishEvent(BookingEvent.of(BookingEventType.REJECTED,
+                    bookingRepository.findById(booking.getId()).orElseThrow()));
+            status.setRollbackOnly();
+        });
+        bookingService.update(owner.getId(), booking.getId(), false);
+
+        awaitContent(bookerEvents, "event:rejected");
+        assertEquals(1, count(bookerEvents.getContentAsString(), "event:rejected"));
+    }
+
+    @Test
+    @SneakyThrows
+    void whenUnknownUserSubscribesThenNotFound() {
+        int subscribers = broadcaster.subscriberCount();
+
+        mockMvc.perform(get("/bookings/events").header(USER_HEADER, 999L))
+                .andExpect(status().isNotFound());
+
+        assertEquals(subscribers, broadcaster.subscriberCount());
+    }
+
+    @Test
+    @SneakyThrows
+    void whenSubscriberStopsReadingThenOthersStillReceiveAndItIsDropped() {
+        ThreadPoolTaskExecutor sender = new ThreadPoolTaskExecutor();
+        sender.setCorePoolSize(2);
+        sender.initialize();
+        CountDownLatch unblock = new CountDownLatch(1);
+        try {
+            BookingEventBroadcaster slowBroadcaster = new BookingEventBroadcaster(userService, new SyncTaskExecutor(),
+                    sender, 60_000, 2, 50);
+            BlockingEmitter stuck = new BlockingEmitter(unblock);
+            BlockingEmitter reading = new BlockingEmitter(new CountDownLatch(0));
+            slowBroadcaster.register(booker.getId(), stuck);
+            slowBroadcaster.register(owner.getId(), reading);
+            BookingEvent event = transactionTemplate.execute(status -> BookingEvent.of(BookingEventType.APPROVED,
+                    bookingRepository.findById(booking.getId()).orElseThrow()));
+
+            slowBroadcaster.onBookingEvent(event);
+            slowBroadcaster.onBookingEvent(event);
+
+            assertTrue(reading.sent.await(WAIT_MS, TimeUnit.MILLISECONDS));
+            assertTrue(stuck.started.await(WAIT_MS, TimeUnit.MILLISECONDS));
+            Thread.sleep(100);
+            slowBroadcaster.heartbeat();
+            assertEquals(1, slowBroadcaster.subscriberCount());
+        } finally {
+            unblock.countDown();
+            sender.shutdown();
+        }
+    }
+
+    @SneakyThrows
+    private MockHttpServletResponse subscribe(Long userId) {
+        return mockMvc.perform(get("/bookings/events").header(USER_HEADER, userId))
+                .andExpect(request().asyncStarted())
+                .andReturn()
+                .getResponse();
+    }
+
+    @SneakyThrows
+    private void awaitContent(MockHttpServletResponse response, String expected) {
+        long deadline = System.currentTimeMillis() + WAIT_MS;
+        while (!response.getContentAsString().contains(expected)) {
+            assertTrue(System.currentTimeMillis() < deadline,
+                    "Expected " + expected + " in " + response.getContentAsString());
+            Thread.sleep(10);
+        }
+    }
+
+    private int count(String content, String part) {
+        return content.split(part, -1).length - 1;
+    }
+
+    /**
+     * A client whose sends don't return until it is unblocked, like one whose socket buffer is full.
+     */
+    private static class BlockingEmitter extends SseEmitter {
+        private final CountDownLatch unblock;
+        private final CountDownLatch started = new CountDownLatch(1);
+        private final CountDownLatch sent = new CountDownLatch(1);
+
+        BlockingEmitter(CountDownLatch unblock) {
+            this.unblock = unblock;
+        }
+
+        @Override
+        @SneakyThrows
+        public void send(SseEventBuilder builder) {
+            started.countDown();
+            unblock.await();
+            sent.countDown();
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package ru.practicum.shareit.booking.integration;
+
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.Status;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.setvice.BookingService;
+import ru.practicum.shareit.exceptions.ValidationException;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+
+/**
+ * Fires hundreds of approvals at once and checks that none of them is lost or applied twice.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:approvals",
+        "shareit.retry.max-attempts=20",
+        "shareit.retry.delay-ms=5",
+        "shareit.booking.approval-lock.timeout-ms=60000"})
+class BookingApprovalConcurrencyTest {
+    private static final int REQUESTS = 200;
+    private static final int THREADS = 32;
+    private static final AtomicInteger USERS = new AtomicInteger();
+
+    @Autowired
+    BookingService bookingService;
+
+    @Autowired
+    ItemService itemService;
+
+    @Autowired
+    BookingRepository bookingRepository;
+
+    @Autowired
+    ItemRepository itemRepository;
+
+    @Autowired
+    UserRepository userRepository;
+
+    private User owner;
+    private User booker;
+    private Item item;
+
+    @BeforeEach
+    void addItem() {
+        owner = addUser("Owner");
+        booker = addUser("Booker");
+        item = itemRepository.save(Item.builder()
+                .name("Drill")
+                .description("Cordless drill")
+                .available(true)
+                .owner(owner)
+                .build());
+    }
+
+    @Test
+    void whenOneBookingIsApprovedConcurrentlyThenOnlyOneApprovalSucceeds() {
+        Booking booking = addWaitingBooking(LocalDateTime.now().plusDays(1L));
+
+        List<Throwable> failures = runConcurrently(REQUESTS,
+                i -> bookingService.update(owner.getId(), booking.getId(), true));
+
+        assertEquals(REQUESTS - 1, failures.size());
+        failures.forEach(failure -> assertInstanceOf(ValidationException.class, failure));
+        Booking approved = bookingRepository.findById(booking.getId()).orElseThrow();
+        assertEquals(Status.APPROVED, approved.getStatus());
+        assertEquals(1L, approved.getVersion());
+    }
+
+    @Test
+    void whenOverlappingBookingsAreApprovedConcurrentlyThenOnlyOneIsApproved() {
+        LocalDateTime start = LocalDateTime.now().plusDays(1L);
+        List<Booking> bookings = new ArrayList<>();
+        for (int i = 0; i < REQUESTS; i++) {
+            bookings.add(addWaitingBooking(start.plusMinutes(i)));
+        }
+
+        List<Throwable> failures = runConcurrently(REQUESTS,
+                i -> bookingService.update(owner.getId(), bookings.get(i).getId(), true));
+
+        assertEquals(REQUESTS - 1, failures.size());
+        failures.forEach(failure -> assertInstanceOf(ValidationException.class, failure));
+        assertEquals(1, bookingRepository.findAllByItemIdAndStatus(item.getId(), Status.APPROVED).size());
+    }
+
+    @Test
+    void whenItemIsUpdatedConcurrentlyThenConflictsAreRetried() {
+        int updates = 8;
+
+        List<Throwable> failures = runConcurrently(updates, i -> itemService.updateItemDto(owner.getId(),
+                item.getId(), new ItemDto(null, "Cordless drill " + i, null)));
+
+        assertEquals(List.of(), failures);
+        assertEquals(updates, itemRepository.findById(item.getId()).orElseThrow().getVersion());
+    }
+
+    private User addUser(String name) {
+        int number = USERS.incrementAndGet();
+        return userRepository.save(User.builder().name(name).email("user" + number + "@yandex.ru").build());
+    }
+
+    private Booking addWaitingBooking(LocalDateTime start) {
+        return bookingRepository.save(new Booking(item, start, start.plusDays(1L), booker, Status.WAITING));
+    }
+
+    @SneakyThrows
+    private List<Throwable> runConcurrently(int requests, Request request) {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Object>> results = new ArrayList<>();
+        try {
+            for (int i = 0; i < requests; i++) {
+                int index = i;
+                Callable<Object> task = () -> {
+                    start.await();
+                    return request.send(index);
+                };
+                results.add(executor.submit(task));
+            }
+            start.countDown();
+            List<Throwable> failures = new ArrayList<>();
+            for (Future<Object> result : results) {
+                try {
+                    result.get();
+                } catch (ExecutionException e) {
+                    failures.add(e.getCause());
+                }
+            }
+            return failures;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private interface Request {
+        Object send(int index);
+    }
+}
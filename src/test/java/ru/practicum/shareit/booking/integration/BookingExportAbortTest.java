@@ -0,0 +1,81 @@
+package ru.practicum.shareit.booking.integration;
+
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.web.server.LocalServerPort;
+import ru.practicum.shareit.booking.dto.BookingDtoOut;
+import ru.practicum.shareit.booking.model.Status;
+import ru.practicum.shareit.booking.setvice.BookingService;
+import ru.practicum.shareit.item.dto.ItemDtoOut;
+import ru.practicum.shareit.user.dto.UserDto;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+
+/**
+ * An export failing after its first rows have been sent: the connection has to be cut, a complete response
+ * with an error after the rows would look like a valid export to the client.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.datasource.url=jdbc:h2:mem:booking-export",
+        "shareit.outbox.dispatcher.enabled=false"})
+class BookingExportAbortTest {
+
+    @LocalServerPort
+    int port;
+
+    @MockBean
+    BookingService bookingService;
+
+    @Test
+    @SneakyThrows
+    void whenExportFailsAfterItStartedThenTheConnectionIsAborted() {
+        BookingDtoOut booking = BookingDtoOut.builder()
+                .id(1L)
+                .start(LocalDateTime.of(2024, 5, 24, 12, 34, 56))
+                .end(LocalDateTime.of(2024, 5, 25, 12, 34, 56))
+                .status(Status.APPROVED)
+                .item(ItemDtoOut.builder().id(1L).name("Drill").description("Cordless drill").available(true).build())
+                .booker(UserDto.builder().id(2L).name("Booker").email("booker@yandex.ru").build())
+                .build();
+        doAnswer(invocation -> {
+            Consumer<BookingDtoOut> consumer = invocation.getArgument(2);
+            for (int i = 0; i < 1000; i++) {
+                consumer.accept(booking);
+            }
+            throw new IllegalStateException("The database went away");
+        }).when(bookingService).exportAllForOwner(eq(1L), eq("ALL"), any());
+
+        String response = get("/bookings/owner/export", 1L);
+
+        assertTrue(response.startsWith("HTTP/1.1 200"), response.substring(0, 100));
+        assertTrue(response.contains("\"id\":1"));
+        assertFalse(response.contains("The database went away"));
+        assertFalse(response.contains("\"error\""));
+        assertFalse(response.endsWith("0\r\n\r\n"), "The chunked response must not be terminated");
+    }
+
+    @SneakyThrows
+    private String get(String path, Long userId) {
+        try (Socket socket = new Socket("localhost", port)) {
+            OutputStream out = socket.getOutputStream();
+            out.write(("GET " + path + " HTTP/1.1\r\nHost: localhost\r\nX-Sharer-User-Id: " + userId
+                    + "\r\n\r\n").getBytes(StandardCharsets.US_ASCII));
+            out.flush();
+            InputStream in = socket.getInputStream();
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
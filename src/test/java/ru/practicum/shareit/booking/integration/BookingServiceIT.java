@@ -89,7 +89,7 @@ public class BookingServiceIT {
         assertEquals(Status.APPROVED, updateBookingDto2.getStatus());
 
         List<BookingDtoOut> bookingDtoOuts = bookingService
-                .findAllForOwner(addUserDto2.getId(), State.ALL.toString(), 0, 10);
+                .findAllForOwner(addUserDto2.getId(), State.ALL.toString(), 0, 10, null).getItems();
 
         assertEquals(2, bookingDtoOuts.size());
     }
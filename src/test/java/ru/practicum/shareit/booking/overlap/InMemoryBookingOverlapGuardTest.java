@@ -0,0 +1,158 @@
+package ru.practicum.shareit.booking.overlap;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.Status;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.exceptions.ValidationException;
+import ru.practicum.shareit.item.model.Item;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class InMemoryBookingOverlapGuardTest {
+    private static final LocalDateTime START = LocalDateTime.of(2030, 1, 10, 12, 0);
+
+    @Mock
+    BookingRepository bookingRepository;
+
+    InMemoryBookingOverlapGuard guard;
+
+    private final Item item = Item.builder().id(1L).name("Lopata").build();
+
+    @BeforeEach
+    void setUp() {
+        guard = new InMemoryBookingOverlapGuard(bookingRepository, 100, Duration.ofHours(1L));
+    }
+
+    @Test
+    void whenApproveNonOverlappingBookingsThenAllAreSaved() {
+        when(bookingRepository.findAllByItemIdAndStatus(item.getId(), Status.APPROVED))
+                .thenReturn(List.of(booking(0, 2, Status.APPROVED)));
+        when(bookingRepository.save(any(Booking.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        Booking after = guard.approve(booking(2, 3, Status.WAITING));
+        Booking before = guard.approve(booking(-2, 0, Status.WAITING));
+
+        assertEquals(Status.APPROVED, after.getStatus());
+        assertEquals(Status.APPROVED, before.getStatus());
+        verify(bookingRepository, times(1)).findAllByItemIdAndStatus(item.getId(), Status.APPROVED);
+    }
+
+    @Test
+    void whenApproveOverlappingBookingShouldThrowValidationException() {
+        when(bookingRepository.findAllByItemIdAndStatus(item.getId(), Status.APPROVED))
+                .thenReturn(List.of(booking(0, 2, Status.APPROVED), booking(5, 6, Status.APPROVED)));
+
+        assertThrows(ValidationException.class, () -> guard.approve(booking(1, 3, Status.WAITING)));
+        assertThrows(ValidationException.class, () -> guard.approve(booking(-1, 1, Status.WAITING)));
+        assertThrows(ValidationException.class, () -> guard.approve(booking(-1, 7, Status.WAITING)));
+        assertThrows(ValidationException.class, () -> guard.approve(booking(4, 6, Status.WAITING)));
+
+        verify(bookingRepository, never()).save(any(Booking.class));
+    }
+
+    @Test
+    void whenApprovingTransactionRollsBackThenPeriodIsReleased() {
+        when(bookingRepository.findAllByItemIdAndStatus(item.getId(), Status.APPROVED)).thenReturn(List.of());
+        when(bookingRepository.save(any(Booking.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            guard.approve(booking(0, 2, Status.WAITING));
+            assertThrows(ValidationException.class, () -> guard.approve(booking(1, 3, Status.WAITING)));
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(synchronization -> synchronization.afterCompletion(
+                            TransactionSynchronization.STATUS_ROLLED_BACK));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertEquals(Status.APPROVED, guard.approve(booking(1, 3, Status.WAITING)).getStatus());
+    }
+
+    @Test
+    void whenPeriodsHaveEndedThenTheyAreDropped() {
+        LocalDateTime now = LocalDateTime.now();
+        Booking ended = Booking.builder()
+                .item(item)
+                .start(now.minusDays(3L))
+                .end(now.minusDays(2L))
+                .status(Status.APPROVED)
+                .build();
+        when(bookingRepository.findAllByItemIdAndStatus(item.getId(), Status.APPROVED))
+                .thenReturn(List.of(ended, booking(0, 2, Status.APPROVED)));
+        when(bookingRepository.save(any(Booking.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        guard.approve(booking(2, 3, Status.WAITING));
+
+        assertEquals(2, guard.periodCount(item.getId()));
+    }
+
+    @Test
+    void whenEarlierWaitingBookingIsApprovedAfterItsOverlapWasDroppedThenPeriodsAreLoadedAgain() {
+        LocalDateTime now = LocalDateTime.now();
+        Booking first = Booking.builder()
+                .item(item)
+                .start(now.minusDays(9L))
+                .end(now.minusDays(5L))
+                .status(Status.APPROVED)
+                .build();
+        Booking waiting = Booking.builder()
+                .item(item)
+                .start(now.minusDays(7L))
+                .end(now.minusDays(4L))
+                .status(Status.WAITING)
+                .build();
+        Booking later = Booking.builder()
+                .item(item)
+                .start(now.minusDays(2L))
+                .end(now.minusDays(1L))
+                .status(Status.WAITING)
+                .build();
+        when(bookingRepository.findAllByItemIdAndStatus(item.getId(), Status.APPROVED))
+                .thenReturn(List.of(first))
+                .thenReturn(List.of(first, later));
+        when(bookingRepository.save(any(Booking.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        guard.approve(later);
+        assertEquals(1, guard.periodCount(item.getId()));
+
+        assertThrows(ValidationException.class, () -> guard.approve(waiting));
+        verify(bookingRepository, times(2)).findAllByItemIdAndStatus(item.getId(), Status.APPROVED);
+    }
+
+    @Test
+    void whenItemIsIdleThenItIsEvictedAndLoadedAgain() {
+        guard = new InMemoryBookingOverlapGuard(bookingRepository, 100, Duration.ZERO);
+        when(bookingRepository.findAllByItemIdAndStatus(item.getId(), Status.APPROVED)).thenReturn(List.of());
+        when(bookingRepository.save(any(Booking.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        guard.approve(booking(0, 2, Status.WAITING));
+        guard.approve(booking(2, 3, Status.WAITING));
+
+        assertEquals(0, guard.itemCount());
+        verify(bookingRepository, times(2)).findAllByItemIdAndStatus(item.getId(), Status.APPROVED);
+    }
+
+    private Booking booking(int startDay, int endDay, Status status) {
+        return Booking.builder()
+                .item(item)
+                .start(START.plusDays(startDay))
+                .end(START.plusDays(endDay))
+                .status(status)
+                .build();
+    }
+}
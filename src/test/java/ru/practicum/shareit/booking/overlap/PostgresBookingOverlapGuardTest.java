@@ -0,0 +1,53 @@
+package ru.practicum.shareit.booking.overlap;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.Status;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.exceptions.ValidationException;
+
+import java.sql.SQLException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class PostgresBookingOverlapGuardTest {
+
+    @Mock
+    BookingRepository bookingRepository;
+
+    @InjectMocks
+    PostgresBookingOverlapGuard guard;
+
+    private final Booking booking = Booking.builder().id(1L).status(Status.WAITING).build();
+
+    @Test
+    void whenApproveThenBookingIsFlushedApproved() {
+        when(bookingRepository.saveAndFlush(booking)).thenReturn(booking);
+
+        assertEquals(Status.APPROVED, guard.approve(booking).getStatus());
+    }
+
+    @Test
+    void whenExclusionConstraintIsViolatedShouldThrowValidationException() {
+        when(bookingRepository.saveAndFlush(booking)).thenThrow(new DataIntegrityViolationException("overlap",
+                new SQLException("conflicting key value violates exclusion constraint \""
+                        + PostgresBookingOverlapGuard.CONSTRAINT + "\"")));
+
+        assertThrows(ValidationException.class, () -> guard.approve(booking));
+    }
+
+    @Test
+    void whenOtherConstraintIsViolatedThenExceptionIsRethrown() {
+        when(bookingRepository.saveAndFlush(booking)).thenThrow(new DataIntegrityViolationException("other",
+                new SQLException("null value in column \"item_id\"")));
+
+        assertThrows(DataIntegrityViolationException.class, () -> guard.approve(booking));
+    }
+}
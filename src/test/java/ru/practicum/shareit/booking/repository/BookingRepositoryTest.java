@@ -6,16 +6,17 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
-import org.springframework.data.domain.PageRequest;
 import org.springframework.test.annotation.DirtiesContext;
+import ru.practicum.shareit.booking.dto.BookingCursor;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.State;
 import ru.practicum.shareit.booking.model.Status;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.model.User;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -91,15 +92,14 @@ class BookingRepositoryTest {
 
     @Test
     void whenFindAllByBookerIdIsOk() {
-        List<Booking> bookings = bookingRepository.findAllBookingsByBookerId(1L, PageRequest.of(0, 10));
+        List<Booking> bookings = findForBooker(State.ALL);
         assertEquals(bookings.size(), 3);
         assertEquals(bookings.get(0).getBooker().getId(), 1L);
     }
 
     @Test
     void whenFindAllCurrentBookingsByBookerIdIsOk() {
-        List<Booking> bookings = bookingRepository.findAllCurrentBookingsByBookerId(1L, LocalDateTime.now(),
-                PageRequest.of(0, 10));
+        List<Booking> bookings = findForBooker(State.CURRENT);
 
         assertEquals(bookings.size(), 1);
         assertEquals(bookings.get(0).getBooker().getId(), 1L);
@@ -107,8 +107,7 @@ class BookingRepositoryTest {
 
     @Test
     void whenFindAllPastBookingsByBookerIdIsOk() {
-        List<Booking> bookings = bookingRepository.findAllPastBookingsByBookerId(1L, LocalDateTime.now(),
-                PageRequest.of(0, 10));
+        List<Booking> bookings = findForBooker(State.PAST);
 
         assertEquals(bookings.size(), 1);
         assertEquals(bookings.get(0).getId(), 2L);
@@ -116,8 +115,7 @@ class BookingRepositoryTest {
 
     @Test
     void whenFindAllFutureBookingsByBookerIdIsOk() {
-        List<Booking> bookings = bookingRepository.findAllFutureBookingsByBookerId(1L, LocalDateTime.now(),
-                PageRequest.of(0, 10));
+        List<Booking> bookings = findForBooker(State.FUTURE);
 
         assertEquals(bookings.size(), 1);
         assertEquals(bookings.get(0).getId(), 3L);
@@ -138,8 +136,7 @@ class BookingRepositoryTest {
 
         bookingRepository.save(waitingBooking);
 
-        List<Booking> bookings = bookingRepository.findAllWaitingBookingsByBookerId(1L, LocalDateTime.now(),
-                PageRequest.of(0, 10));
+        List<Booking> bookings = findForBooker(State.WAITING);
 
         assertEquals(bookings.size(), 1);
         assertEquals(bookings.get(0).getStatus(), Status.WAITING);
@@ -159,8 +156,7 @@ class BookingRepositoryTest {
 
         bookingRepository.save(waitingBooking);
 
-        List<Booking> bookings = bookingRepository.findAllRejectedBookingsByBookerId(1L, LocalDateTime.now(),
-                PageRequest.of(0, 10));
+        List<Booking> bookings = findForBooker(State.REJECTED);
 
         assertEquals(bookings.size(), 1);
         assertEquals(bookings.get(0).getStatus(), Status.REJECTED);
@@ -168,15 +164,14 @@ class BookingRepositoryTest {
 
     @Test
     void whenFindAllByOwnerIdIsOk() {
-        List<Booking> bookings = bookingRepository.findAllBookingsByOwnerId(2L, PageRequest.of(0, 10));
+        List<Booking> bookings = findForOwner(State.ALL);
         assertEquals(bookings.size(), 3);
         assertEquals(bookings.get(0).getBooker().getId(), 1L);
     }
 
     @Test
     void whenFindAllCurrentBookingsByOwnerIdIsOk() {
-        List<Booking> bookings = bookingRepository.findAllCurrentBookingsByOwnerId(2L, LocalDateTime.now(),
-                PageRequest.of(0, 10));
+        List<Booking> bookings = findForOwner(State.CURRENT);
 
         assertEquals(bookings.size(), 1);
         assertEquals(bookings.get(0).getBooker().getId(), 1L);
@@ -184,8 +179,7 @@ class BookingRepositoryTest {
 
     @Test
     void whenFindAllPastBookingsByOwnerIdIsOk() {
-        List<Booking> bookings = bookingRepository.findAllPastBookingsByOwnerId(2L, LocalDateTime.now(),
-                PageRequest.of(0, 10));
+        List<Booking> bookings = findForOwner(State.PAST);
 
         assertEquals(bookings.size(), 1);
         assertEquals(bookings.get(0).getId(), 2L);
@@ -193,8 +187,7 @@ class BookingRepositoryTest {
 
     @Test
     void whenFindAllFutureBookingsByOwnerIdIsOk() {
-        List<Booking> bookings = bookingRepository.findAllFutureBookingsByOwnerId(2L, LocalDateTime.now(),
-                PageRequest.of(0, 10));
+        List<Booking> bookings = findForOwner(State.FUTURE);
 
         assertEquals(bookings.size(), 1);
         assertEquals(bookings.get(0).getId(), 3L);
@@ -214,8 +207,7 @@ class BookingRepositoryTest {
 
         bookingRepository.save(waitingBooking);
 
-        List<Booking> bookings = bookingRepository.findAllWaitingBookingsByOwnerId(2L, LocalDateTime.now(),
-                PageRequest.of(0, 10));
+        List<Booking> bookings = findForOwner(State.WAITING);
 
         assertEquals(bookings.size(), 1);
         assertEquals(bookings.get(0).getStatus(), Status.WAITING);
@@ -235,8 +227,7 @@ class BookingRepositoryTest {
 
         bookingRepository.save(waitingBooking);
 
-        List<Booking> bookings = bookingRepository.findAllRejectedBookingsByOwnerId(2L,
-                PageRequest.of(0, 10));
+        List<Booking> bookings = findForOwner(State.REJECTED);
 
         assertEquals(bookings.size(), 1);
         assertEquals(bookings.get(0).getStatus(), Status.REJECTED);
@@ -251,29 +242,80 @@ class BookingRepositoryTest {
     }
 
     @Test
-    void whenGetLastBookingIsOk() {
-        Optional<Booking> bookingOptional = bookingRepository.getLastBooking(1L, LocalDateTime.now());
-        Booking realBooking;
+    void whenFindLastAndNextApprovedIsOk() {
+        Booking farFutureBooking = Booking.builder()
+                .item(testEntityManager.find(Item.class, itemId))
+                .booker(testEntityManager.find(User.class, userId))
+                .status(Status.APPROVED)
+                .start(LocalDateTime.now().plusWeeks(3L))
+                .end(LocalDateTime.now().plusWeeks(4L))
+                .build();
+        testEntityManager.persistAndFlush(farFutureBooking);
+        testEntityManager.clear();
 
-        if (bookingOptional.isPresent()) {
-            realBooking = bookingOptional.get();
+        List<Booking> bookings = bookingRepository.findLastAndNextApproved(List.of(itemId), LocalDateTime.now());
 
-            assertEquals(realBooking.getId(), 1L);
-        } else {
+        assertEquals(2, bookings.size());
+        assertTrue(bookings.stream().anyMatch(booking -> booking.getId() == 1L));
+        assertTrue(bookings.stream().anyMatch(booking -> booking.getId() == 3L));
+        assertTrue(bookings.stream().allMatch(booking -> booking.getBooker().getName() != null));
+    }
 
-            fail();
-        }
+    @Test
+    void whenFindAllByBookerIdAfterCursorIsOk() {
+        testEntityManager.clear();
+        List<Booking> firstPage = bookingRepository.findAllByQuery(BookingQuery.builder()
+                .bookerId(1L)
+                .state(State.ALL)
+                .now(LocalDateTime.now())
+                .limit(2)
+                .build());
+
+        assertEquals(2, firstPage.size());
+        assertEquals(3L, firstPage.get(0).getId());
+        assertEquals(1L, firstPage.get(1).getId());
+
+        Booking last = firstPage.get(1);
+        List<Booking> secondPage = bookingRepository.findAllByQuery(BookingQuery.builder()
+                .bookerId(1L)
+                .state(State.ALL)
+                .now(LocalDateTime.now())
+                .after(new BookingCursor(last.getStart(), last.getId()))
+                .limit(2)
+                .build());
+
+        assertEquals(1, secondPage.size());
+        assertEquals(2L, secondPage.get(0).getId());
     }
 
     @Test
-    void whenGetNextBookingIsOk() {
-        Optional<Booking> bookingOptional = bookingRepository.getNextBooking(1L, LocalDateTime.now());
+    void whenForEachByOwnerQueryIsOk() {
+        List<Long> ids = new ArrayList<>();
 
-        assertTrue(bookingOptional.isPresent(), "Booking should be present");
+        bookingRepository.forEachByQuery(BookingQuery.builder()
+                .ownerId(2L)
+                .state(State.ALL)
+                .now(LocalDateTime.now())
+                .build(), booking -> ids.add(booking.getId()));
 
-        Booking realBooking = bookingOptional.get();
-        assertEquals(realBooking.getId(), 3L);
+        assertEquals(List.of(3L, 1L, 2L), ids);
     }
 
+    private List<Booking> findForBooker(State state) {
+        return bookingRepository.findAllByQuery(BookingQuery.builder()
+                .bookerId(1L)
+                .state(state)
+                .now(LocalDateTime.now())
+                .limit(10)
+                .build());
+    }
 
-}
\ No newline at end of file
+    private List<Booking> findForOwner(State state) {
+        return bookingRepository.findAllByQuery(BookingQuery.builder()
+                .ownerId(2L)
+                .state(state)
+                .now(LocalDateTime.now())
+                .limit(10)
+                .build());
+    }
+}
@@ -2,31 +2,47 @@ package ru.practicum.shareit.booking.setvice;
 
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.data.domain.Pageable;
+import org.springframework.context.ApplicationEventPublisher;
+import ru.practicum.shareit.booking.dto.BookingCursor;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingDtoOut;
+import ru.practicum.shareit.booking.event.BookingEvent;
+import ru.practicum.shareit.booking.event.BookingEventType;
 import ru.practicum.shareit.booking.mapper.BookingMapper;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.State;
 import ru.practicum.shareit.booking.model.Status;
+import ru.practicum.shareit.booking.overlap.ApprovalLocks;
+import ru.practicum.shareit.booking.overlap.BookingOverlapGuard;
+import ru.practicum.shareit.booking.repository.BookingQuery;
 import ru.practicum.shareit.booking.repository.BookingRepository;
 import ru.practicum.shareit.exceptions.NotFoundException;
 import ru.practicum.shareit.exceptions.ValidationException;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.service.ItemBookingSummaryService;
+import ru.practicum.shareit.outbox.service.OutboxService;
+import ru.practicum.shareit.page.PageDto;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.service.UserService;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -41,6 +57,21 @@ class BookingServiceImpTest {
     @Mock
     private BookingRepository bookingRepository;
 
+    @Mock
+    private ItemBookingSummaryService summaryService;
+
+    @Mock
+    private BookingOverlapGuard overlapGuard;
+
+    @Mock
+    private ApprovalLocks approvalLocks;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private OutboxService outboxService;
+
     @InjectMocks
     private BookingServiceImp bookingServiceImp;
 
@@ -112,6 +143,7 @@ class BookingServiceImpTest {
         BookingDtoOut realBookingDtoOut = bookingServiceImp.add(userDto.getId(), bookingDto);
 
         assertEquals(bookingDtoOut, realBookingDtoOut);
+        assertPublished(BookingEventType.CREATED, null);
     }
 
     @Test
@@ -155,12 +187,20 @@ class BookingServiceImpTest {
 
     @Test
     void whenUpdateIsOk() {
+        when(bookingRepository.findItemIdById(bookingWaiting.getId()))
+                .thenReturn(Optional.of(bookingWaiting.getItem().getId()));
         when(bookingRepository.findById(anyLong())).thenReturn(Optional.of(bookingWaiting));
-        when(bookingRepository.save(any(Booking.class))).thenReturn(bookingWaiting);
+        when(overlapGuard.approve(bookingWaiting)).thenAnswer(invocation -> {
+            bookingWaiting.setStatus(Status.APPROVED);
+            return bookingWaiting;
+        });
 
         BookingDtoOut bookingDtoOut = bookingServiceImp.update(owner.getId(), bookingWaiting.getId(), true);
 
         assertEquals(Status.APPROVED, bookingDtoOut.getStatus());
+        verify(approvalLocks).lockUntilCompletion(bookingWaiting.getItem().getId());
+        verify(summaryService).refresh(bookingWaiting.getItem());
+        assertPublished(BookingEventType.APPROVED, bookingWaiting.getId());
     }
 
     @Test
@@ -171,6 +211,21 @@ class BookingServiceImpTest {
         BookingDtoOut bookingDtoOut = bookingServiceImp.update(owner.getId(), bookingWaiting.getId(), false);
 
         assertEquals(Status.REJECTED, bookingDtoOut.getStatus());
+        verify(summaryService, never()).refresh(any(Item.class));
+        verify(overlapGuard, never()).approve(any(Booking.class));
+        assertPublished(BookingEventType.REJECTED, bookingWaiting.getId());
+    }
+
+    @Test
+    void whenUpdateOverlapsApprovedBookingShouldThrowValidationException() {
+        when(bookingRepository.findById(anyLong())).thenReturn(Optional.of(bookingWaiting));
+        when(overlapGuard.approve(bookingWaiting))
+                .thenThrow(new ValidationException("The item is already booked for these dates"));
+
+        assertThrows(ValidationException.class,
+                () -> bookingServiceImp.update(owner.getId(), bookingWaiting.getId(), true));
+
+        verify(summaryService, never()).refresh(any(Item.class));
     }
 
     @Test
@@ -227,11 +282,10 @@ class BookingServiceImpTest {
     void whenGetAllByBookerAndBookingStateALL() {
         List<BookingDtoOut> bookingDtoOuts = List.of(BookingMapper.toBookingOut(booking));
 
-        when(userService.findById(user.getId())).thenReturn(userDto);
-        when(bookingRepository.findAllBookingsByBookerId(anyLong(), any(Pageable.class))).thenReturn(List.of(booking));
+        when(bookingRepository.findAllByQuery(any(BookingQuery.class))).thenReturn(List.of(booking));
 
         List<BookingDtoOut> realBookingDtoOut = bookingServiceImp
-                .findAllForBooker(user.getId(), "ALL", 0, 10);
+                .findAllForBooker(user.getId(), "ALL", 0, 10, null).getItems();
         assertEquals(bookingDtoOuts, realBookingDtoOut);
     }
 
@@ -239,12 +293,10 @@ class BookingServiceImpTest {
     void whenGetAllByBookerAndBookingStateCURRENT() {
         List<BookingDtoOut> bookingDtoOuts = List.of(BookingMapper.toBookingOut(booking));
 
-        when(userService.findById(user.getId())).thenReturn(userDto);
-        when(bookingRepository.findAllCurrentBookingsByBookerId(anyLong(),
-                any(LocalDateTime.class), any(Pageable.class))).thenReturn(List.of(booking));
+        when(bookingRepository.findAllByQuery(any(BookingQuery.class))).thenReturn(List.of(booking));
 
         List<BookingDtoOut> realBookingDtoOut = bookingServiceImp
-                .findAllForBooker(user.getId(), "CURRENT", 0, 10);
+                .findAllForBooker(user.getId(), "CURRENT", 0, 10, null).getItems();
         assertEquals(bookingDtoOuts, realBookingDtoOut);
     }
 
@@ -252,12 +304,10 @@ class BookingServiceImpTest {
     void whenGetAllByBookerAndBookingStatePAST() {
         List<BookingDtoOut> bookingDtoOuts = List.of(BookingMapper.toBookingOut(booking));
 
-        when(userService.findById(user.getId())).thenReturn(userDto);
-        when(bookingRepository.findAllPastBookingsByBookerId(anyLong(),
-                any(LocalDateTime.class), any(Pageable.class))).thenReturn(List.of(booking));
+        when(bookingRepository.findAllByQuery(any(BookingQuery.class))).thenReturn(List.of(booking));
 
         List<BookingDtoOut> realBookingDtoOut = bookingServiceImp
-                .findAllForBooker(user.getId(), "PAST", 0, 10);
+                .findAllForBooker(user.getId(), "PAST", 0, 10, null).getItems();
         assertEquals(bookingDtoOuts, realBookingDtoOut);
     }
 
@@ -265,12 +315,10 @@ class BookingServiceImpTest {
     void whenGetAllByBookerAndBookingStateFUTURE() {
         List<BookingDtoOut> bookingDtoOuts = List.of(BookingMapper.toBookingOut(booking));
 
-        when(userService.findById(user.getId())).thenReturn(userDto);
-        when(bookingRepository.findAllFutureBookingsByBookerId(anyLong(),
-                any(LocalDateTime.class), any(Pageable.class))).thenReturn(List.of(booking));
+        when(bookingRepository.findAllByQuery(any(BookingQuery.class))).thenReturn(List.of(booking));
 
         List<BookingDtoOut> realBookingDtoOut = bookingServiceImp
-                .findAllForBooker(user.getId(), "FUTURE", 0, 10);
+                .findAllForBooker(user.getId(), "FUTURE", 0, 10, null).getItems();
         assertEquals(bookingDtoOuts, realBookingDtoOut);
     }
 
@@ -278,12 +326,10 @@ class BookingServiceImpTest {
     void whenGetAllByBookerAndBookingStateWAITING() {
         List<BookingDtoOut> bookingDtoOuts = List.of(BookingMapper.toBookingOut(booking));
 
-        when(userService.findById(user.getId())).thenReturn(userDto);
-        when(bookingRepository.findAllWaitingBookingsByBookerId(anyLong(),
-                any(LocalDateTime.class), any(Pageable.class))).thenReturn(List.of(booking));
+        when(bookingRepository.findAllByQuery(any(BookingQuery.class))).thenReturn(List.of(booking));
 
         List<BookingDtoOut> realBookingDtoOut = bookingServiceImp
-                .findAllForBooker(user.getId(), "WAITING", 0, 10);
+                .findAllForBooker(user.getId(), "WAITING", 0, 10, null).getItems();
         assertEquals(bookingDtoOuts, realBookingDtoOut);
     }
 
@@ -291,30 +337,27 @@ class BookingServiceImpTest {
     void whenGetAllByBookerAndBookingStateREJECTED() {
         List<BookingDtoOut> bookingDtoOuts = List.of(BookingMapper.toBookingOut(booking));
 
-        when(userService.findById(user.getId())).thenReturn(userDto);
-        when(bookingRepository.findAllRejectedBookingsByBookerId(anyLong(),
-                any(LocalDateTime.class), any(Pageable.class))).thenReturn(List.of(booking));
+        when(bookingRepository.findAllByQuery(any(BookingQuery.class))).thenReturn(List.of(booking));
 
         List<BookingDtoOut> realBookingDtoOut = bookingServiceImp
-                .findAllForBooker(user.getId(), "REJECTED", 0, 10);
+                .findAllForBooker(user.getId(), "REJECTED", 0, 10, null).getItems();
         assertEquals(bookingDtoOuts, realBookingDtoOut);
     }
 
     @Test
     void whenGetAllByBookerAndBookingStateIsNotValidShouldThrowIllegalArgumentException() {
         assertThrows(IllegalArgumentException.class,
-                () -> bookingServiceImp.findAllForBooker(user.getId(), "ERROR", 0, 10));
+                () -> bookingServiceImp.findAllForBooker(user.getId(), "ERROR", 0, 10, null));
     }
 
     @Test
     void whenGetAllByOwnerAndBookingStateALL() {
         List<BookingDtoOut> bookingDtoOuts = List.of(BookingMapper.toBookingOut(booking));
 
-        when(userService.findById(user.getId())).thenReturn(userDto);
-        when(bookingRepository.findAllBookingsByOwnerId(anyLong(), any(Pageable.class))).thenReturn(List.of(booking));
+        when(bookingRepository.findAllByQuery(any(BookingQuery.class))).thenReturn(List.of(booking));
 
         List<BookingDtoOut> realBookingDtoOut = bookingServiceImp
-                .findAllForOwner(user.getId(), "ALL", 0, 10);
+                .findAllForOwner(user.getId(), "ALL", 0, 10, null).getItems();
         assertEquals(bookingDtoOuts, realBookingDtoOut);
     }
 
@@ -322,12 +365,10 @@ class BookingServiceImpTest {
     void whenGetAllByOwnerAndBookingStateCURRENT() {
         List<BookingDtoOut> bookingDtoOuts = List.of(BookingMapper.toBookingOut(booking));
 
-        when(userService.findById(user.getId())).thenReturn(userDto);
-        when(bookingRepository.findAllCurrentBookingsByOwnerId(anyLong(),
-                any(LocalDateTime.class), any(Pageable.class))).thenReturn(List.of(booking));
+        when(bookingRepository.findAllByQuery(any(BookingQuery.class))).thenReturn(List.of(booking));
 
         List<BookingDtoOut> realBookingDtoOut = bookingServiceImp
-                .findAllForOwner(user.getId(), "CURRENT", 0, 10);
+                .findAllForOwner(user.getId(), "CURRENT", 0, 10, null).getItems();
         assertEquals(bookingDtoOuts, realBookingDtoOut);
     }
 
@@ -335,12 +376,10 @@ class BookingServiceImpTest {
     void whenGetAllByOwnerAndBookingStatePAST() {
         List<BookingDtoOut> bookingDtoOuts = List.of(BookingMapper.toBookingOut(booking));
 
-        when(userService.findById(user.getId())).thenReturn(userDto);
-        when(bookingRepository.findAllPastBookingsByOwnerId(anyLong(),
-                any(LocalDateTime.class), any(Pageable.class))).thenReturn(List.of(booking));
+        when(bookingRepository.findAllByQuery(any(BookingQuery.class))).thenReturn(List.of(booking));
 
         List<BookingDtoOut> realBookingDtoOut = bookingServiceImp
-                .findAllForOwner(user.getId(), "PAST", 0, 10);
+                .findAllForOwner(user.getId(), "PAST", 0, 10, null).getItems();
         assertEquals(bookingDtoOuts, realBookingDtoOut);
     }
 
@@ -348,12 +387,10 @@ class BookingServiceImpTest {
     void whenGetAllByOwnerAndBookingStateFUTURE() {
         List<BookingDtoOut> bookingDtoOuts = List.of(BookingMapper.toBookingOut(booking));
 
-        when(userService.findById(user.getId())).thenReturn(userDto);
-        when(bookingRepository.findAllFutureBookingsByOwnerId(anyLong(),
-                any(LocalDateTime.class), any(Pageable.class))).thenReturn(List.of(booking));
+        when(bookingRepository.findAllByQuery(any(BookingQuery.class))).thenReturn(List.of(booking));
 
         List<BookingDtoOut> realBookingDtoOut = bookingServiceImp
-                .findAllForOwner(user.getId(), "FUTURE", 0, 10);
+                .findAllForOwner(user.getId(), "FUTURE", 0, 10, null).getItems();
         assertEquals(bookingDtoOuts, realBookingDtoOut);
     }
 
@@ -361,12 +398,10 @@ class BookingServiceImpTest {
     void whenGetAllByOwnerAndBookingStateWAITING() {
         List<BookingDtoOut> bookingDtoOuts = List.of(BookingMapper.toBookingOut(booking));
 
-        when(userService.findById(user.getId())).thenReturn(userDto);
-        when(bookingRepository.findAllWaitingBookingsByOwnerId(anyLong(),
-                any(LocalDateTime.class), any(Pageable.class))).thenReturn(List.of(booking));
+        when(bookingRepository.findAllByQuery(any(BookingQuery.class))).thenReturn(List.of(booking));
 
         List<BookingDtoOut> realBookingDtoOut = bookingServiceImp
-                .findAllForOwner(user.getId(), "WAITING", 0, 10);
+                .findAllForOwner(user.getId(), "WAITING", 0, 10, null).getItems();
         assertEquals(bookingDtoOuts, realBookingDtoOut);
     }
 
@@ -374,22 +409,108 @@ class BookingServiceImpTest {
     void whenGetAllByOwnerAndBookingStateREJECTED() {
         List<BookingDtoOut> bookingDtoOuts = List.of(BookingMapper.toBookingOut(booking));
 
-        when(userService.findById(user.getId())).thenReturn(userDto);
-        when(bookingRepository.findAllRejectedBookingsByOwnerId(anyLong(),
-                any(Pageable.class))).thenReturn(List.of(booking));
+        when(bookingRepository.findAllByQuery(any(BookingQuery.class))).thenReturn(List.of(booking));
 
         List<BookingDtoOut> realBookingDtoOut = bookingServiceImp
-                .findAllForOwner(user.getId(), "REJECTED", 0, 10);
+                .findAllForOwner(user.getId(), "REJECTED", 0, 10, null).getItems();
         assertEquals(bookingDtoOuts, realBookingDtoOut);
     }
 
     @Test
     void whenGetAllByOwnerAndBookingStateIsNotValidShouldThrowIllegalArgumentException() {
-        when(userService.findById(user.getId())).thenReturn(userDto);
 
         assertThrows(IllegalArgumentException.class,
-                () -> bookingServiceImp.findAllForBooker(user.getId(), "ERROR", 0, 10));
+                () -> bookingServiceImp.findAllForBooker(user.getId(), "ERROR", 0, 10, null));
     }
 
+    @Test
+    void whenGetAllByOwnerWithCursorShouldSeekAfterCursor() {
+        BookingCursor cursor = new BookingCursor(booking.getStart(), booking.getId());
+        ArgumentCaptor<BookingQuery> queryCaptor = ArgumentCaptor.forClass(BookingQuery.class);
 
-}
\ No newline at end of file
+        when(bookingRepository.findAllByQuery(any(BookingQuery.class))).thenReturn(List.of());
+
+        bookingServiceImp.findAllForOwner(owner.getId(), "FUTURE", 20, 10, cursor.encode());
+
+        verify(bookingRepository).findAllByQuery(queryCaptor.capture());
+        BookingQuery query = queryCaptor.getValue();
+        assertEquals(owner.getId(), query.getOwnerId());
+        assertEquals(State.FUTURE, query.getState());
+        assertEquals(cursor, query.getAfter());
+        assertEquals(11, query.getLimit());
+    }
+
+    @Test
+    void whenRowPastThePageIsFoundThenPageHasMoreAndCursorToItsLastBooking() {
+        when(bookingRepository.findAllByQuery(any(BookingQuery.class))).thenReturn(List.of(booking, booking));
+
+        PageDto<BookingDtoOut> page = bookingServiceImp.findAllForBooker(user.getId(), "ALL", 0, 1, null);
+
+        assertEquals(List.of(BookingMapper.toBookingOut(booking)), page.getItems());
+        assertTrue(page.isHasMore());
+        assertEquals(new BookingCursor(booking.getStart(), booking.getId()).encode(), page.getNextCursor());
+    }
+
+    @Test
+    void whenGetAllByBookerWithInvalidCursorShouldThrowValidationException() {
+
+        ValidationException validationException = assertThrows(ValidationException.class,
+                () -> bookingServiceImp.findAllForBooker(user.getId(), "ALL", 0, 10, "not-a-cursor"));
+
+        assertEquals("Invalid cursor: not-a-cursor", validationException.getMessage());
+    }
+
+    @Test
+    void whenExportAllForOwnerPassesEveryBooking() {
+        ArgumentCaptor<BookingQuery> queryCaptor = ArgumentCaptor.forClass(BookingQuery.class);
+        doAnswer(invocation -> {
+            Consumer<Booking> action = invocation.getArgument(1);
+            action.accept(booking);
+            return null;
+        }).when(bookingRepository).forEachByQuery(queryCaptor.capture(), any());
+        List<BookingDtoOut> exported = new ArrayList<>();
+
+        bookingServiceImp.exportAllForOwner(owner.getId(), "PAST", exported::add);
+
+        assertEquals(List.of(BookingMapper.toBookingOut(booking)), exported);
+        verify(userService).checkExists(owner.getId());
+        assertEquals(owner.getId(), queryCaptor.getValue().getOwnerId());
+        assertEquals(State.PAST, queryCaptor.getValue().getState());
+    }
+
+    @Test
+    void whenExportAllForOwnerWithUnknownStateShouldNotReadBookings() {
+        assertThrows(IllegalArgumentException.class,
+                () -> bookingServiceImp.exportAllForOwner(owner.getId(), "UNKNOWN", booking -> fail()));
+
+        verify(bookingRepository, never()).forEachByQuery(any(), any());
+    }
+
+    @Test
+    void whenExportAllForBookerPassesEveryBooking() {
+        ArgumentCaptor<BookingQuery> queryCaptor = ArgumentCaptor.forClass(BookingQuery.class);
+        doAnswer(invocation -> {
+            Consumer<Booking> action = invocation.getArgument(1);
+            action.accept(booking);
+            return null;
+        }).when(bookingRepository).forEachByQuery(queryCaptor.capture(), any());
+        List<BookingDtoOut> exported = new ArrayList<>();
+
+        bookingServiceImp.exportAllForBooker(user.getId(), "ALL", exported::add);
+
+        assertEquals(List.of(BookingMapper.toBookingOut(booking)), exported);
+        verify(userService).checkExists(user.getId());
+        assertEquals(user.getId(), queryCaptor.getValue().getBookerId());
+        assertEquals(State.ALL, queryCaptor.getValue().getState());
+    }
+
+    private void assertPublished(BookingEventType type, Long bookingId) {
+        ArgumentCaptor<BookingEvent> eventCaptor = ArgumentCaptor.forClass(BookingEvent.class);
+        verify(eventPublisher).publishEvent(eventCaptor.capture());
+        assertEquals(type, eventCaptor.getValue().getType());
+        assertEquals(owner.getId(), eventCaptor.getValue().getOwnerId());
+        assertEquals(bookingId, eventCaptor.getValue().getBooking().getId());
+        verify(outboxService).publish(OutboxService.BOOKING, bookingId, type.eventName(),
+                eventCaptor.getValue().getBooking());
+    }
+}
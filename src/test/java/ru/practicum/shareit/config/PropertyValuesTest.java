@@ -0,0 +1,33 @@
+package ru.practicum.shareit.config;
+
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.item.search.ItemSearchEngineType;
+
+import java.util.Locale;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class PropertyValuesTest {
+
+    @Test
+    void whenDefaultLocaleIsTurkishThenValuesWithIStillMatch() {
+        Locale locale = Locale.getDefault();
+        Locale.setDefault(new Locale("tr", "TR"));
+        try {
+            assertEquals(ItemSearchEngineType.MEMORY,
+                    PropertyValues.parse("shareit.item.search.engine", "memory", ItemSearchEngineType.class));
+        } finally {
+            Locale.setDefault(locale);
+        }
+    }
+
+    @Test
+    void whenValueIsUnknownThenErrorListsTheAllowedOnes() {
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> PropertyValues.parse("shareit.item.search.engine", "lucene", ItemSearchEngineType.class));
+
+        assertEquals("Unknown shareit.item.search.engine=lucene, expected one of auto, database, postgres, memory",
+                e.getMessage());
+    }
+}
@@ -0,0 +1,26 @@
+package ru.practicum.shareit.config;
+
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DataJpaTest
+class SchemaIndexVerifierTest {
+
+    @Autowired
+    DataSource dataSource;
+
+    @Test
+    @SneakyThrows
+    void whenMigrationsAppliedNoIndexIsMissing() {
+        List<String> missing = new SchemaIndexVerifier(dataSource).findMissingIndexes();
+
+        assertEquals(List.of(), missing);
+    }
+}
@@ -0,0 +1,61 @@
+package ru.practicum.shareit.config;
+
+import org.apache.coyote.ProtocolHandler;
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class ServerThreadsConfigTest {
+    private static final boolean VIRTUAL_THREADS = Runtime.version().feature() >= 21;
+
+    private final ServerThreadsConfig config = new ServerThreadsConfig();
+
+    @Test
+    void whenPlatformThreadsThenTomcatKeepsItsExecutor() {
+        ProtocolHandler protocolHandler = mock(ProtocolHandler.class);
+
+        config.serverThreadsCustomizer("platform", 10).customize(protocolHandler);
+
+        verify(protocolHandler, never()).setExecutor(any(Executor.class));
+    }
+
+    @Test
+    void whenVirtualThreadsThenTomcatGetsThemOnlyWhereTheRuntimeHasThem() {
+        ProtocolHandler protocolHandler = mock(ProtocolHandler.class);
+
+        config.serverThreadsCustomizer("virtual", 10).customize(protocolHandler);
+
+        verify(protocolHandler, times(VIRTUAL_THREADS ? 1 : 0))
+                .setExecutor(any(Executor.class));
+    }
+
+    @Test
+    void whenVirtualThreadsAreAvailableThenEachTaskRunsOnOne() throws Exception {
+        Optional<ExecutorService> executor = VirtualThreads.newPerTaskExecutor("test-virtual-");
+
+        assertEquals(VIRTUAL_THREADS, executor.isPresent());
+        if (executor.isPresent()) {
+            String name = executor.get().submit(() -> Thread.currentThread().getName()).get();
+            executor.get().shutdown();
+            assertEquals("test-virtual-0", name);
+        }
+    }
+
+    @Test
+    void whenUnknownThreadsThenStartupFails() {
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> config.serverThreadsCustomizer("green", 10));
+
+        assertEquals("Unknown shareit.server.threads=green, expected one of platform, virtual", e.getMessage());
+    }
+}
@@ -15,6 +15,7 @@ import ru.practicum.shareit.item.dto.ItemDtoOut;
 import ru.practicum.shareit.item.mapper.ItemMapper;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.page.PageDto;
 import ru.practicum.shareit.user.model.User;
 
 
@@ -179,7 +180,7 @@ class ItemControllerTest {
                 .available(true)
                 .build());
 
-        when(itemService.findAllItemsDto(userId, from, size)).thenReturn(itemsDto);
+        when(itemService.findAllItemsDto(userId, from, size, null)).thenReturn(PageDto.last(itemsDto));
 
         String result = mockMvc.perform(MockMvcRequestBuilders.get("/items", from, size)
                         .header(USER_HEADER, userId))
@@ -215,7 +216,7 @@ class ItemControllerTest {
                 .available(true)
                 .build());
 
-        when(itemService.findItemDtoByText(userId, text, from, size)).thenReturn(itemsDto);
+        when(itemService.findItemDtoByText(userId, text, from, size, null)).thenReturn(PageDto.last(itemsDto));
 
         String result = mockMvc.perform(MockMvcRequestBuilders.get("/items/search", from, size)
                         .header(USER_HEADER, userId)
@@ -285,7 +286,7 @@ class ItemControllerTest {
                         .header(USER_HEADER, user.getId()))
                 .andExpect(status().isBadRequest());
 
-        verify(itemService, never()).findAllItemsDto(user.getId(), from, size);
+        verify(itemService, never()).findAllItemsDto(user.getId(), from, size, null);
     }
 
     @Test
@@ -303,7 +304,7 @@ class ItemControllerTest {
                         .header(USER_HEADER, user.getId()))
                 .andExpect(status().isBadRequest());
 
-        verify(itemService, never()).findItemDtoByText(user.getId(), text, from, size);
+        verify(itemService, never()).findItemDtoByText(user.getId(), text, from, size, null);
     }
 
 }
\ No newline at end of file
@@ -0,0 +1,129 @@
+package ru.practicum.shareit.item.integration;
+
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.Status;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.dto.ItemDtoOut;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemBookingSummaryRepository;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Reads items whose booking summary doesn't exist yet from many threads at once: every read must succeed
+ * although all of them compute the summary and try to store it.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:summaries",
+        "shareit.outbox.dispatcher.enabled=false"})
+class ItemBookingSummaryConcurrencyTest {
+    private static final int ITEMS = 10;
+    private static final int READS = 16;
+    private static final AtomicInteger USERS = new AtomicInteger();
+
+    @Autowired
+    ItemService itemService;
+
+    @Autowired
+    ItemRepository itemRepository;
+
+    @Autowired
+    BookingRepository bookingRepository;
+
+    @Autowired
+    ItemBookingSummaryRepository summaryRepository;
+
+    @Autowired
+    UserRepository userRepository;
+
+    private User owner;
+    private User booker;
+
+    @BeforeEach
+    void addUsers() {
+        owner = addUser("Owner");
+        booker = addUser("Booker");
+    }
+
+    @Test
+    void whenFirstReadsOfAnItemRunConcurrentlyThenAllSucceed() {
+        for (int i = 0; i < ITEMS; i++) {
+            Item item = itemRepository.save(Item.builder()
+                    .name("Drill " + i)
+                    .description("Cordless drill")
+                    .available(true)
+                    .owner(owner)
+                    .build());
+            LocalDateTime start = LocalDateTime.now().plusDays(1L);
+            Booking next = bookingRepository.save(new Booking(item, start, start.plusDays(1L), booker,
+                    Status.APPROVED));
+
+            List<Object> results = new ArrayList<>();
+            List<Throwable> failures = runConcurrently(READS,
+                    index -> itemService.findItemDtoById(owner.getId(), item.getId()), results);
+
+            assertEquals(List.of(), failures);
+            results.forEach(result -> assertEquals(next.getId(), ((ItemDtoOut) result).getNextBooking().getId()));
+            assertTrue(summaryRepository.findById(item.getId()).isPresent());
+        }
+    }
+
+    private User addUser(String name) {
+        int number = USERS.incrementAndGet();
+        return userRepository.save(User.builder().name(name).email("reader" + number + "@yandex.ru").build());
+    }
+
+    @SneakyThrows
+    private List<Throwable> runConcurrently(int requests, Request request, List<Object> results) {
+        ExecutorService executor = Executors.newFixedThreadPool(requests);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Object>> futures = new ArrayList<>();
+        try {
+            for (int i = 0; i < requests; i++) {
+                int index = i;
+                Callable<Object> task = () -> {
+                    start.await();
+                    return request.send(index);
+                };
+                futures.add(executor.submit(task));
+            }
+            start.countDown();
+            List<Throwable> failures = new ArrayList<>();
+            for (Future<Object> future : futures) {
+                try {
+                    results.add(future.get());
+                } catch (ExecutionException e) {
+                    failures.add(e.getCause());
+                }
+            }
+            return failures;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private interface Request {
+        Object send(int index);
+    }
+}
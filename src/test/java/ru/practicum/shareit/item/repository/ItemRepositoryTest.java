@@ -62,7 +62,7 @@ class ItemRepositoryTest {
         String searchQuery = "desc";
 
         List<Item> foundItems = itemRepository.search(searchQuery,
-                PageRequest.of(0, 1));
+                PageRequest.of(0, 1)).getContent();
         assertFalse(foundItems.isEmpty());
         assertTrue(foundItems.stream().anyMatch(item -> item.getDescription().toLowerCase().contains(searchQuery)));
     }
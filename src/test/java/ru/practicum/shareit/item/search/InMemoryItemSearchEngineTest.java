@@ -0,0 +1,160 @@
+package ru.practicum.shareit.item.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class InMemoryItemSearchEngineTest {
+
+    @Mock
+    private ItemRepository itemRepository;
+
+    private InMemoryItemSearchEngine engine;
+
+    private final Item drill = Item.builder()
+            .id(1L)
+            .name("Drill")
+            .description("Cordless drill")
+            .available(true)
+            .build();
+
+    private final Item toolbox = Item.builder()
+            .id(2L)
+            .name("Toolbox")
+            .description("Toolbox with a drill bit set")
+            .available(true)
+            .build();
+
+    private final Item saw = Item.builder()
+            .id(3L)
+            .name("Saw")
+            .description("Hand saw")
+            .available(true)
+            .build();
+
+    @BeforeEach
+    void setUp() {
+        engine = new InMemoryItemSearchEngine(itemRepository);
+        engine.index(drill);
+        engine.index(toolbox);
+        engine.index(saw);
+    }
+
+    @Test
+    void whenSearchRanksNameMatchesFirst() {
+        when(itemRepository.findAllById(anyIterable())).thenReturn(List.of(toolbox, drill));
+
+        List<Item> found = engine.search("DRILL", 0, 10).map(ItemSearchHit::getItem).getContent();
+
+        assertEquals(List.of(1L, 2L), found.stream().map(Item::getId).collect(Collectors.toList()));
+    }
+
+    @Test
+    void whenSearchRanksWholeWordAboveSubstring() {
+        Item drills = Item.builder()
+                .id(4L)
+                .name("Drill")
+                .description("Drills")
+                .available(true)
+                .build();
+        Item handDrill = Item.builder()
+                .id(5L)
+                .name("Drill")
+                .description("Hand drill")
+                .available(true)
+                .build();
+        engine = new InMemoryItemSearchEngine(itemRepository);
+        engine.index(drills);
+        engine.index(handDrill);
+        when(itemRepository.findAllById(List.of(5L, 4L))).thenReturn(List.of(drills, handDrill));
+
+        List<Item> found = engine.search("drill", 0, 2).map(ItemSearchHit::getItem).getContent();
+
+        assertEquals(List.of(handDrill, drills), found);
+    }
+
+    @Test
+    void whenSearchMatchesSubstringOnly() {
+        when(itemRepository.findAllById(List.of(3L))).thenReturn(List.of(saw));
+
+        List<Item> found = engine.search("and s", 0, 10).map(ItemSearchHit::getItem).getContent();
+
+        assertEquals(List.of(saw), found);
+    }
+
+    @Test
+    void whenSearchWithShortQueryScansAllItems() {
+        when(itemRepository.findAllById(List.of(3L))).thenReturn(List.of(saw));
+
+        List<Item> found = engine.search("aw", 0, 10).map(ItemSearchHit::getItem).getContent();
+
+        assertEquals(List.of(saw), found);
+    }
+
+    @Test
+    void whenItemBecomesUnavailableItIsRemovedFromIndex() {
+        drill.setAvailable(false);
+        engine.index(drill);
+        when(itemRepository.findAllById(List.of(2L))).thenReturn(List.of(toolbox));
+
+        List<Item> found = engine.search("drill", 0, 10).map(ItemSearchHit::getItem).getContent();
+
+        assertEquals(List.of(toolbox), found);
+    }
+
+    @Test
+    void whenSearchPagesByOffset() {
+        when(itemRepository.findAllById(List.of(2L))).thenReturn(List.of(toolbox));
+
+        List<Item> found = engine.search("drill", 1, 1).map(ItemSearchHit::getItem).getContent();
+
+        assertEquals(List.of(toolbox), found);
+    }
+
+    @Test
+    void whenSearchAfterLastHitThenContinuesInRankOrder() {
+        when(itemRepository.findAllById(List.of(1L))).thenReturn(List.of(drill));
+        when(itemRepository.findAllById(List.of(2L))).thenReturn(List.of(toolbox));
+        ItemSearchHit last = engine.search("drill", 0, 1).getContent().get(0);
+
+        List<Item> next = engine.searchAfter("drill", last.getRank(), last.getItem().getId(), 1)
+                .map(ItemSearchHit::getItem).getContent();
+
+        assertEquals(List.of(toolbox), next);
+    }
+
+    @Test
+    void whenLastHitIsEditedBetweenPagesThenNextPageContinuesFromItsOldRank() {
+        when(itemRepository.findAllById(List.of(1L))).thenReturn(List.of(drill));
+        when(itemRepository.findAllById(List.of(2L))).thenReturn(List.of(toolbox));
+        ItemSearchHit last = engine.search("drill", 0, 1).getContent().get(0);
+        drill.setName("Press");
+        drill.setDescription("A drill press for the workshop that comes with a clamp and a set of spare belts");
+        engine.index(drill);
+
+        List<Item> next = engine.searchAfter("drill", last.getRank(), last.getItem().getId(), 1)
+                .map(ItemSearchHit::getItem).getContent();
+
+        assertEquals(List.of(toolbox), next);
+    }
+
+    @Test
+    void whenNothingMatchesReturnsEmptyList() {
+        when(itemRepository.findAllById(List.of())).thenReturn(List.of());
+
+        assertTrue(engine.search("hammer", 0, 10).isEmpty());
+    }
+}
@@ -0,0 +1,73 @@
+package ru.practicum.shareit.item.search;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.config.CacheConfig;
+import ru.practicum.shareit.item.dto.ItemDtoOut;
+import ru.practicum.shareit.item.mapper.ItemMapper;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.page.PageDto;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ItemSearchCacheTest {
+    private final ItemSearchCache itemSearchCache = new ItemSearchCache(new CacheConfig()
+            .cacheManager("maximumSize=100", "maximumSize=100,recordStats"));
+
+    private final Item before = Item.builder()
+            .id(1L)
+            .name("Lopata")
+            .description("Snow shovel")
+            .available(true)
+            .build();
+
+    private final Item after = Item.builder()
+            .id(1L)
+            .name("Lopata")
+            .description("Snow shovel")
+            .available(false)
+            .build();
+
+    private final AtomicInteger searches = new AtomicInteger();
+
+    private final Supplier<PageDto<ItemDtoOut>> search = () -> {
+        searches.incrementAndGet();
+        return PageDto.last(List.of(ItemMapper.toItemDtoOut(before)));
+    };
+
+    @Test
+    void whenItemChangesWhileSearchRunsThenItsPageIsNotCached() {
+        itemSearchCache.get("lopata", 0, 10, null, () -> {
+            itemSearchCache.evictChanged(before, after);
+            return search.get();
+        });
+
+        itemSearchCache.get("lopata", 0, 10, null, search);
+
+        assertEquals(2, searches.get());
+    }
+
+    @Test
+    void whenItemChangesInTransactionThenPageIsEvictedOnlyAfterCommit() {
+        itemSearchCache.get("lopata", 0, 10, null, search);
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            itemSearchCache.evictChanged(before, after);
+            itemSearchCache.get("lopata", 0, 10, null, search);
+            assertEquals(1, searches.get());
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(synchronization -> synchronization.afterCommit());
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        itemSearchCache.get("lopata", 0, 10, null, search);
+        itemSearchCache.get("lopata", 0, 10, null, search);
+        assertEquals(2, searches.get());
+    }
+}
@@ -0,0 +1,134 @@
+package ru.practicum.shareit.item.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.Status;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.model.ItemBookingSummary;
+import ru.practicum.shareit.item.repository.ItemBookingSummaryRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ItemBookingSummaryServiceImpTest {
+
+    @Mock
+    private ItemBookingSummaryRepository summaryRepository;
+
+    @Mock
+    private BookingRepository bookingRepository;
+
+    @InjectMocks
+    private ItemBookingSummaryServiceImp summaryService;
+
+    private final LocalDateTime now = LocalDateTime.of(2024, 6, 1, 12, 0);
+
+    private final Item item = Item.builder()
+            .id(1L)
+            .name("Lopata")
+            .description("Description for Lopata")
+            .available(true)
+            .build();
+
+    private final Booking lastBooking = Booking.builder()
+            .id(1L)
+            .item(item)
+            .status(Status.APPROVED)
+            .start(now.minusDays(2))
+            .end(now.minusDays(1))
+            .build();
+
+    private final Booking nextBooking = Booking.builder()
+            .id(2L)
+            .item(item)
+            .status(Status.APPROVED)
+            .start(now.plusDays(1))
+            .end(now.plusDays(2))
+            .build();
+
+    @Test
+    void whenSummaryIsValidItIsReturnedWithoutBookingQueries() {
+        ItemBookingSummary summary = summary(lastBooking, nextBooking);
+        when(summaryRepository.findAllByItemIdIn(List.of(item.getId()))).thenReturn(List.of(summary));
+
+        Map<Long, ItemBookingSummary> summaries = summaryService.findByItems(List.of(item), now);
+
+        assertSame(summary, summaries.get(item.getId()));
+        verifyNoInteractions(bookingRepository);
+    }
+
+    @Test
+    void whenSummariesAreMissingTheyAreComputedInOneBatch() {
+        Item otherItem = Item.builder().id(2L).name("Grabli").description("Grabli").available(true).build();
+        when(summaryRepository.findAllByItemIdIn(List.of(item.getId(), otherItem.getId()))).thenReturn(List.of());
+        when(bookingRepository.findLastAndNextApproved(List.of(item.getId(), otherItem.getId()), now))
+                .thenReturn(List.of(lastBooking, nextBooking));
+
+        Map<Long, ItemBookingSummary> summaries = summaryService.findByItems(List.of(item, otherItem), now);
+
+        assertEquals(summary(lastBooking, nextBooking), summaries.get(item.getId()));
+        assertNull(summaries.get(otherItem.getId()).getLastBooking());
+        assertNull(summaries.get(otherItem.getId()).getNextBooking());
+        verify(summaryRepository).insertAbsent(List.of(summaries.get(item.getId()),
+                summaries.get(otherItem.getId())));
+        verify(summaryRepository).saveAll(List.of());
+    }
+
+    @Test
+    void whenNextBookingHasStartedSummaryIsRecomputed() {
+        ItemBookingSummary stale = summary(null, lastBooking);
+        when(summaryRepository.findAllByItemIdIn(List.of(item.getId()))).thenReturn(List.of(stale));
+        when(bookingRepository.findLastAndNextApproved(List.of(item.getId()), now))
+                .thenReturn(List.of(lastBooking));
+
+        ItemBookingSummary summary = summaryService.findByItems(List.of(item), now).get(item.getId());
+
+        assertSame(stale, summary);
+        assertEquals(lastBooking, summary.getLastBooking());
+        assertNull(summary.getNextBooking());
+        assertNull(summary.getValidUntil());
+    }
+
+    @Test
+    void whenRefreshUpdatesExistingSummary() {
+        Booking approvedBooking = Booking.builder()
+                .id(3L)
+                .item(item)
+                .status(Status.APPROVED)
+                .start(LocalDateTime.now().plusDays(1))
+                .end(LocalDateTime.now().plusDays(2))
+                .build();
+        ItemBookingSummary existing = summary(lastBooking, null);
+        when(summaryRepository.findById(item.getId())).thenReturn(Optional.of(existing));
+        when(bookingRepository.findLastAndNextApproved(eq(List.of(item.getId())), any(LocalDateTime.class)))
+                .thenReturn(List.of(approvedBooking));
+
+        summaryService.refresh(item);
+
+        assertNull(existing.getLastBooking());
+        assertEquals(approvedBooking, existing.getNextBooking());
+        assertEquals(approvedBooking.getStart(), existing.getValidUntil());
+        verify(summaryRepository).saveAll(List.of(existing));
+    }
+
+    private ItemBookingSummary summary(Booking last, Booking next) {
+        return ItemBookingSummary.builder()
+                .itemId(item.getId())
+                .lastBooking(last)
+                .nextBooking(next)
+                .validUntil(next == null ? null : next.getStart())
+                .build();
+    }
+}
@@ -4,21 +4,33 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.Status;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.config.CacheConfig;
 import ru.practicum.shareit.exceptions.NotFoundException;
 import ru.practicum.shareit.exceptions.ValidationException;
 import ru.practicum.shareit.item.dto.CommentDtoOut;
+import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemDtoOut;
+import ru.practicum.shareit.item.dto.ItemSearchCursor;
 import ru.practicum.shareit.item.mapper.CommentMapper;
 import ru.practicum.shareit.item.mapper.ItemMapper;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.model.ItemBookingSummary;
 import ru.practicum.shareit.item.repository.CommentRepository;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemSearchCache;
+import ru.practicum.shareit.item.search.ItemSearchEngine;
+import ru.practicum.shareit.item.search.ItemSearchHit;
+import ru.practicum.shareit.outbox.service.OutboxService;
+import ru.practicum.shareit.page.PageDto;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.mapper.UserMapper;
@@ -28,12 +40,19 @@ import ru.practicum.shareit.user.service.UserService;
 import java.time.LocalDateTime;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -51,6 +70,19 @@ class ItemServiceImpTest {
     @Mock
     private UserService userService;
 
+    @Mock
+    private ItemSearchEngine itemSearchEngine;
+
+    @Spy
+    private ItemSearchCache itemSearchCache = new ItemSearchCache(new CacheConfig()
+            .cacheManager("maximumSize=100", "maximumSize=100,recordStats"));
+
+    @Mock
+    private ItemBookingSummaryService summaryService;
+
+    @Mock
+    private OutboxService outboxService;
+
     @InjectMocks
     private ItemServiceImp itemServiceImp;
 
@@ -157,11 +189,11 @@ class ItemServiceImpTest {
 
         assertEquals(realItemDtoOut.getName(), "Test name");
         assertEquals(realItemDtoOut.getDescription(), "Test description");
+        verify(outboxService).publish(OutboxService.ITEM, saveItem.getId(), OutboxService.CREATED, realItemDtoOut);
     }
 
     @Test
     void whenGetItemByIdIsCorrect() {
-        when(userService.findById(user.getId())).thenReturn(userDto);
         when(itemRepository.findById(item.getId())).thenReturn(Optional.of(item));
 
         ItemDtoOut actualItemDto = itemServiceImp.findItemDtoById(user.getId(), item.getId());
@@ -169,6 +201,24 @@ class ItemServiceImpTest {
         assertEquals(itemDto, actualItemDto);
     }
 
+    @Test
+    void whenGetItemByIdAsOwnerTakesBookingsFromSummary() {
+        ItemBookingSummary summary = ItemBookingSummary.builder()
+                .itemId(item.getId())
+                .lastBooking(lastBooking)
+                .nextBooking(nextBooking)
+                .validUntil(nextBooking.getStart())
+                .build();
+        when(itemRepository.findById(item.getId())).thenReturn(Optional.of(item));
+        when(summaryService.findByItems(eq(List.of(item)), any(LocalDateTime.class)))
+                .thenReturn(Map.of(item.getId(), summary));
+
+        ItemDtoOut actualItemDto = itemServiceImp.findItemDtoById(user.getId(), item.getId());
+
+        assertEquals(lastBooking.getId(), actualItemDto.getLastBooking().getId());
+        assertEquals(nextBooking.getId(), actualItemDto.getNextBooking().getId());
+    }
+
     @Test
     void whenUpdateItemIsCorrect() {
         ItemRequest itemRequest = new ItemRequest(1L, "description", user, LocalDateTime.now(), null);
@@ -233,15 +283,71 @@ class ItemServiceImpTest {
 
     @Test
     void whenSearchItemIsCorrect() {
-        when(itemRepository.findAllByOwnerId(anyLong(), any(Pageable.class))).thenReturn(List.of(item));
+        when(itemRepository.findAllByOwnerId(anyLong(), any(Pageable.class))).thenReturn(new SliceImpl<>(List.of(item)));
 
-        List<ItemDtoOut> realItems = itemServiceImp.findAllItemsDto(1L, 0, 10);
+        List<ItemDtoOut> realItems = itemServiceImp.findAllItemsDto(1L, 0, 10, null).getItems();
 
         assertEquals(1, realItems.size());
         assertEquals(1, realItems.get(0).getId());
         assertEquals("Lopata", realItems.get(0).getName());
     }
 
+    @Test
+    void whenFindItemByTextUsesSearchEngine() {
+        when(itemSearchEngine.search("lopata", 15, 10))
+                .thenReturn(new SliceImpl<>(List.of(new ItemSearchHit(item, 1.5))));
+
+        List<ItemDtoOut> realItems = itemServiceImp.findItemDtoByText(user.getId(), "lopata", 15, 10, null)
+                .getItems();
+
+        assertEquals(1, realItems.size());
+        assertEquals("Lopata", realItems.get(0).getName());
+    }
+
+    @Test
+    void whenFindItemByTextAfterCursorThenSeeksPastTheLastHit() {
+        when(itemSearchEngine.searchAfter("lopata", 2.25, 7L, 1))
+                .thenReturn(new SliceImpl<>(List.of(new ItemSearchHit(item, 1.5)), PageRequest.of(0, 1), true));
+
+        PageDto<ItemDtoOut> page = itemServiceImp.findItemDtoByText(user.getId(), "lopata", 40, 1,
+                new ItemSearchCursor(2.25, 7L).encode());
+
+        assertEquals(List.of(item.getId()), page.getItems().stream()
+                .map(ItemDtoOut::getId)
+                .collect(Collectors.toList()));
+        assertTrue(page.isHasMore());
+        assertEquals(new ItemSearchCursor(1.5, item.getId()).encode(), page.getNextCursor());
+    }
+
+    @Test
+    void whenSameTextIsSearchedAgainThenPageComesFromCache() {
+        when(itemSearchEngine.search("lopata", 0, 10))
+                .thenReturn(new SliceImpl<>(List.of(new ItemSearchHit(item, 1.5))));
+
+        PageDto<ItemDtoOut> first = itemServiceImp.findItemDtoByText(user.getId(), "lopata", 0, 10, null);
+        PageDto<ItemDtoOut> second = itemServiceImp.findItemDtoByText(user.getId(), "LOPATA", 0, 10, null);
+
+        assertEquals(first, second);
+        verify(itemSearchEngine, times(1)).search("lopata", 0, 10);
+    }
+
+    @Test
+    void whenUpdatedItemMatchedCachedTextThenOnlyThatTextIsSearchedAgain() {
+        when(itemSearchEngine.search(anyString(), eq(0), eq(10)))
+                .thenReturn(new SliceImpl<>(List.of(new ItemSearchHit(item, 1.5))));
+        when(userService.findById(user.getId())).thenReturn(UserMapper.toUserDto(user));
+        when(itemRepository.findById(item.getId())).thenReturn(Optional.of(item));
+        itemServiceImp.findItemDtoByText(user.getId(), "lopata", 0, 10, null);
+        itemServiceImp.findItemDtoByText(user.getId(), "grabli", 0, 10, null);
+
+        itemServiceImp.updateItemDto(user.getId(), item.getId(), ItemDto.builder().available(false).build());
+        itemServiceImp.findItemDtoByText(user.getId(), "lopata", 0, 10, null);
+        itemServiceImp.findItemDtoByText(user.getId(), "grabli", 0, 10, null);
+
+        verify(itemSearchEngine, times(2)).search("lopata", 0, 10);
+        verify(itemSearchEngine, times(1)).search("grabli", 0, 10);
+    }
+
     @Test
     void whenCreateCommentIsCorrect() {
         CommentDtoOut commentDtoOut = CommentMapper.toCommentDtoOut(comment);
@@ -0,0 +1,90 @@
+package ru.practicum.shareit.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static ru.practicum.shareit.item.controller.ItemController.USER_HEADER;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:metrics")
+@AutoConfigureMockMvc
+class EndpointMetricsInterceptorTest {
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    @Autowired
+    UserRepository userRepository;
+
+    @Test
+    @SneakyThrows
+    void whenGetUserRecordsEndpointMetrics() {
+        User user = userRepository.save(User.builder().name("Professor").email("professor@yandex.ru").build());
+
+        mockMvc.perform(get("/users/{userId}", user.getId())).andExpect(status().isOk());
+
+        DistributionSummary statements = meterRegistry.find("shareit.endpoint.statements")
+                .tags("method", "GET", "uri", "/users/{userId}")
+                .summary();
+        DistributionSummary entities = meterRegistry.find("shareit.endpoint.entities")
+                .tags("method", "GET", "uri", "/users/{userId}")
+                .summary();
+        Timer latency = meterRegistry.find("shareit.endpoint.latency")
+                .tags("method", "GET", "uri", "/users/{userId}")
+                .timer();
+        assertNotNull(statements);
+        assertNotNull(entities);
+        assertNotNull(latency);
+        assertEquals(1, statements.count());
+        assertEquals(1, statements.totalAmount());
+        assertEquals(1, entities.totalAmount());
+        assertEquals(1, latency.count());
+    }
+
+    @Test
+    @SneakyThrows
+    void whenStreamIsAsyncThenOnlyItsLatencyIsRecordedAndNothingStaysOnTheThread() {
+        User user = userRepository.save(User.builder().name("Streamer").email("streamer@yandex.ru").build());
+
+        MvcResult result = mockMvc.perform(get("/bookings/stream").header(USER_HEADER, user.getId()))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        assertNull(RequestStatistics.current());
+        mockMvc.perform(asyncDispatch(result)).andExpect(status().isOk());
+
+        Timer latency = meterRegistry.find("shareit.endpoint.latency")
+                .tags("method", "GET", "uri", "/bookings/stream", "async", "true")
+                .timer();
+        assertNotNull(latency);
+        assertEquals(1, latency.count());
+        assertNull(meterRegistry.find("shareit.endpoint.statements").tags("uri", "/bookings/stream").summary());
+        assertNull(RequestStatistics.current());
+    }
+
+    @Test
+    @SneakyThrows
+    void whenMetricsEndpointIsExposed() {
+        mockMvc.perform(get("/users")).andExpect(status().isOk());
+
+        mockMvc.perform(get("/actuator/metrics/shareit.endpoint.statements")).andExpect(status().isOk());
+    }
+}
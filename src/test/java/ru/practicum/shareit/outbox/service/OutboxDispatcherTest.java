@@ -0,0 +1,263 @@
+package ru.practicum.shareit.outbox.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.IllegalTransactionStateException;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.outbox.consumer.OutboxConsumer;
+import ru.practicum.shareit.outbox.model.OutboxEvent;
+import ru.practicum.shareit.outbox.repository.OutboxEventRepository;
+import ru.practicum.shareit.outbox.repository.OutboxOffsetRepository;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.dto.ItemRequestDtoOut;
+import ru.practicum.shareit.request.repository.ItemRequestRepository;
+import ru.practicum.shareit.request.service.ItemRequestService;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:outbox",
+        "shareit.outbox.poll-ms=3600000",
+        "shareit.outbox.purge-ms=3600000",
+        "shareit.outbox.settle-ms=0",
+        "shareit.outbox.batch-size=2",
+        "shareit.outbox.max-batches=2"
+})
+class OutboxDispatcherTest {
+
+    @Autowired
+    OutboxDispatcher dispatcher;
+
+    @Autowired
+    OutboxService outboxService;
+
+    @Autowired
+    ItemRequestService itemRequestService;
+
+    @Autowired
+    RecordingConsumer recordingConsumer;
+
+    @Autowired
+    OutboxEventRepository eventRepository;
+
+    @Autowired
+    OutboxOffsetRepository offsetRepository;
+
+    @Autowired
+    TransactionTemplate transactionTemplate;
+
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    @Autowired
+    UserRepository userRepository;
+
+    @Autowired
+    ItemRequestRepository itemRequestRepository;
+
+    private User user;
+
+    @TestConfiguration
+    static class RecordingConsumerConfig {
+        @Bean
+        RecordingConsumer recordingConsumer() {
+            return new RecordingConsumer();
+        }
+    }
+
+    static class RecordingConsumer implements OutboxConsumer {
+        private final List<Long> handled = new ArrayList<>();
+        private int failures;
+
+        @Override
+        public String name() {
+            return "recording";
+        }
+
+        @Override
+        public void handle(List<OutboxEvent> events) {
+            if (failures > 0) {
+                failures--;
+                throw new IllegalStateException("Consumer is down");
+            }
+            events.forEach(event -> handled.add(event.getId()));
+        }
+    }
+
+    @BeforeEach
+    void addUser() {
+        dispatcher.dispatch();
+        recordingConsumer.handled.clear();
+        user = userRepository.save(User.builder().name("Professor").email("professor@yandex.ru").build());
+    }
+
+    @AfterEach
+    void deleteAll() {
+        itemRequestRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void whenRequestIsAddedThenConsumersReceiveItsEventOnce() {
+        double counted = countedRequests();
+        ItemRequestDtoOut request = itemRequestService.add(user.getId(), new ItemRequestDto("Need a drill"));
+
+        dispatcher.dispatch();
+        dispatcher.dispatch();
+
+        List<OutboxEvent> handled = eventRepository.findAllById(recordingConsumer.handled);
+        assertEquals(1, handled.size());
+        assertEquals(OutboxService.REQUEST, handled.get(0).getAggregateType());
+        assertEquals(request.getId(), handled.get(0).getAggregateId());
+        assertTrue(handled.get(0).getPayload().contains("\"description\":\"Need a drill\""));
+        assertEquals(counted + 1, countedRequests());
+        assertEquals(handled.get(0).getId(), offsetRepository.findById("recording").orElseThrow().getLastEventId());
+    }
+
+    @Test
+    void whenTransactionRollsBackThenItsEventIsNotDelivered() {
+        transactionTemplate.executeWithoutResult(status -> {
+            outboxService.publish(OutboxService.REQUEST, 1L, OutboxService.CREATED, "rolled back");
+            status.setRollbackOnly();
+        });
+        Long committed = publish(1).get(0);
+
+        dispatcher.dispatch();
+
+        assertEquals(List.of(committed), recordingConsumer.handled);
+    }
+
+    @Test
+    void whenConsumerFailsThenTheSameEventsAreRedeliveredAfterBackoff() throws InterruptedException {
+        List<Long> published = publish(2);
+        recordingConsumer.failures = 1;
+
+        dispatcher.dispatch();
+        dispatcher.dispatch();
+        assertTrue(recordingConsumer.handled.isEmpty());
+        assertEquals(published.get(0) - 1, offsetRepository.findById("recording").orElseThrow().getLastEventId());
+
+        Thread.sleep(300);
+        dispatcher.dispatch();
+
+        assertEquals(published, recordingConsumer.handled);
+    }
+
+    @Test
+    void whenMoreEventsThanBatchesAllowThenTheRestWaitsForTheNextPoll() {
+        List<Long> published = publish(5);
+
+        dispatcher.dispatch();
+        assertEquals(published.subList(0, 4), recordingConsumer.handled);
+
+        dispatcher.dispatch();
+        assertEquals(published, recordingConsumer.handled);
+    }
+
+    @Test
+    void whenPublishOutsideTransactionThenFails() {
+        assertThrows(IllegalTransactionStateException.class,
+                () -> outboxService.publish(OutboxService.REQUEST, 1L, OutboxService.CREATED, "lost"));
+    }
+
+    @Test
+    @SneakyThrows
+    void whenGapWasPassedAndItsTransactionCommitsLaterThenItsEventIsStillDelivered() {
+        CountDownLatch published = new CountDownLatch(1);
+        CountDownLatch commit = new CountDownLatch(1);
+        CompletableFuture<Long> late = CompletableFuture.supplyAsync(() -> transactionTemplate.execute(status -> {
+            outboxService.publish(OutboxService.REQUEST, 1L, OutboxService.CREATED, "late");
+            Long id = eventRepository.findMaxId().orElseThrow();
+            published.countDown();
+            await(commit);
+            return id;
+        }));
+        assertTrue(published.await(5, TimeUnit.SECONDS));
+        List<Long> committed = publish(1);
+
+        dispatcher.dispatch();
+        assertEquals(committed, recordingConsumer.handled);
+
+        commit.countDown();
+        Long lateId = late.get(5, TimeUnit.SECONDS);
+        dispatcher.dispatch();
+        dispatcher.dispatch();
+
+        assertEquals(List.of(committed.get(0), lateId), recordingConsumer.handled);
+    }
+
+    @Test
+    void whenSettledEventsSkipIdsThenTheyAreTheGaps() {
+        LocalDateTime now = LocalDateTime.now();
+        List<OutboxEvent> settled = List.of(event(12L, now), event(13L, now), event(16L, now));
+
+        assertEquals(List.of(11L, 14L, 15L), OutboxDispatcher.gaps(settled, 10L));
+    }
+
+    @Test
+    void whenGapIsRecentThenDispatchStopsBeforeIt() {
+        LocalDateTime now = LocalDateTime.now();
+        List<OutboxEvent> events = List.of(event(11L, now.minusMinutes(1)), event(13L, now));
+
+        assertEquals(List.of(11L), ids(OutboxDispatcher.settled(events, 10L, now.minusSeconds(5))));
+    }
+
+    @Test
+    void whenGapIsOlderThanSettleThenDispatchPassesIt() {
+        LocalDateTime now = LocalDateTime.now();
+        List<OutboxEvent> events = List.of(event(12L, now.minusMinutes(1)), event(13L, now));
+
+        assertEquals(List.of(12L, 13L), ids(OutboxDispatcher.settled(events, 10L, now.minusSeconds(5))));
+    }
+
+    private List<Long> publish(int count) {
+        return transactionTemplate.execute(status -> {
+            for (int i = 0; i < count; i++) {
+                outboxService.publish(OutboxService.REQUEST, (long) i, OutboxService.CREATED, "event " + i);
+            }
+            return eventRepository.findAllByIdGreaterThanOrderByIdAsc(
+                            eventRepository.findMaxId().orElseThrow() - count,
+                            PageRequest.of(0, count)).stream()
+                    .map(OutboxEvent::getId)
+                    .collect(Collectors.toList());
+        });
+    }
+
+    @SneakyThrows
+    private static void await(CountDownLatch latch) {
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+    }
+
+    private double countedRequests() {
+        return meterRegistry.counter("shareit.domain.events",
+                "aggregate", OutboxService.REQUEST, "type", OutboxService.CREATED).count();
+    }
+
+    private static OutboxEvent event(Long id, LocalDateTime created) {
+        return OutboxEvent.builder().id(id).created(created).build();
+    }
+
+    private static List<Long> ids(List<OutboxEvent> events) {
+        return events.stream().map(OutboxEvent::getId).collect(Collectors.toList());
+    }
+}
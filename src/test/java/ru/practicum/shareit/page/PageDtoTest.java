@@ -0,0 +1,68 @@
+package ru.practicum.shareit.page;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
+import ru.practicum.shareit.exceptions.ValidationException;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PageDtoTest {
+
+    @Test
+    void whenRowPastThePageIsReadThenItIsDroppedAndThereIsMore() {
+        PageDto<Integer> page = PageDto.of(List.of(1, 2, 3), 2, String::valueOf);
+
+        assertEquals(List.of(1, 2), page.getItems());
+        assertTrue(page.isHasMore());
+        assertEquals("2", page.getNextCursor());
+    }
+
+    @Test
+    void whenNoRowPastThePageThenItIsTheLast() {
+        PageDto<Integer> page = PageDto.of(List.of(1, 2), 2, String::valueOf);
+
+        assertEquals(List.of(1, 2), page.getItems());
+        assertFalse(page.isHasMore());
+        assertNull(page.getNextCursor());
+    }
+
+    @Test
+    void whenSliceHasNextThenCursorPointsAfterItsLastItem() {
+        PageDto<Integer> page = PageDto.of(new SliceImpl<>(List.of(1, 2), PageRequest.of(0, 2), true),
+                String::valueOf);
+
+        assertTrue(page.isHasMore());
+        assertEquals("2", page.getNextCursor());
+        assertEquals(List.of("1", "2"), page.map(String::valueOf).getItems());
+        assertEquals("2", page.map(String::valueOf).getNextCursor());
+    }
+
+    @Test
+    void whenOffsetIsNotAMultipleOfSizeThenPageStartsAtIt() {
+        OffsetPageRequest pageable = OffsetPageRequest.of(5, 10);
+
+        assertEquals(5, pageable.getOffset());
+        assertEquals(10, pageable.getPageSize());
+        assertEquals(15, pageable.next().getOffset());
+        assertEquals(0, pageable.previousOrFirst().getOffset());
+        assertThrows(IllegalArgumentException.class, () -> OffsetPageRequest.of(-1, 10));
+        assertThrows(IllegalArgumentException.class, () -> OffsetPageRequest.of(0, 0));
+    }
+
+    @Test
+    void whenOffsetCursorIsSentThenItReplacesFrom() {
+        String cursor = new OffsetCursor(20).encode();
+
+        assertEquals(20, OffsetCursor.resolve(5, cursor));
+        assertEquals(5, OffsetCursor.resolve(5, null));
+        assertThrows(ValidationException.class, () -> OffsetCursor.resolve(0, "%%%"));
+        assertThrows(ValidationException.class, () -> OffsetCursor.resolve(0, new OffsetCursor(-10).encode()));
+    }
+}
@@ -0,0 +1,74 @@
+package ru.practicum.shareit.page;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.mock.web.MockHttpServletResponse;
+import ru.practicum.shareit.exceptions.NotFoundException;
+import ru.practicum.shareit.exceptions.StreamAbortedException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StreamLimiterTest {
+    private final MockHttpServletResponse response = new MockHttpServletResponse();
+
+    @Test
+    void whenAllStreamsAreRunningThenAnotherIsRejectedUntilOneEnds() throws Exception {
+        StreamLimiter limiter = new StreamLimiter(1, 60_000);
+        List<String> written = new ArrayList<>();
+
+        limiter.stream(response, checkDeadline -> assertThrows(TaskRejectedException.class,
+                () -> limiter.stream(new MockHttpServletResponse(), nested -> written.add("nested"))));
+        limiter.stream(response, checkDeadline -> written.add("next"));
+
+        assertEquals(List.of("next"), written);
+    }
+
+    @Test
+    void whenStreamFailsBeforeCommitThenResponseIsResetForTheErrorBody() throws Exception {
+        StreamLimiter limiter = new StreamLimiter(1, 60_000);
+        NotFoundException failure = new NotFoundException("User not found");
+
+        NotFoundException thrown = assertThrows(NotFoundException.class, () -> limiter.stream(response,
+                checkDeadline -> {
+                    response.setContentType("text/csv");
+                    response.getWriter().write("id\n");
+                    throw failure;
+                }));
+
+        assertSame(failure, thrown);
+        assertEquals("", response.getContentAsString());
+        assertNull(response.getContentType());
+    }
+
+    @Test
+    void whenStreamFailsAfterCommitThenItIsAborted() {
+        StreamLimiter limiter = new StreamLimiter(1, 60_000);
+
+        assertThrows(StreamAbortedException.class, () -> limiter.stream(response, checkDeadline -> {
+            response.getWriter().write("[");
+            response.flushBuffer();
+            throw new IllegalStateException("The database went away");
+        }));
+    }
+
+    @Test
+    void whenStreamRunsPastTheTimeoutThenTheNextRowFails() {
+        StreamLimiter limiter = new StreamLimiter(1, 0);
+
+        IllegalStateException e = assertThrows(IllegalStateException.class, () -> limiter.stream(response,
+                checkDeadline -> {
+                    LockSupport.parkNanos(1_000_000);
+                    checkDeadline.run();
+                }));
+
+        assertTrue(e.getMessage().startsWith("The listing took longer than 0 ms"));
+    }
+}
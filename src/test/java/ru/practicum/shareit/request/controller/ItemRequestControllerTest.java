@@ -8,6 +8,7 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import ru.practicum.shareit.page.PageDto;
 import ru.practicum.shareit.request.dto.ItemRequestDtoOut;
 import ru.practicum.shareit.request.service.ItemRequestService;
 import ru.practicum.shareit.user.model.User;
@@ -104,7 +105,8 @@ class ItemRequestControllerTest {
         int from = 0;
         int size = 10;
 
-        when(itemRequestService.getAllRequests(user.getId(), from, size)).thenReturn(List.of(requestDtoOut));
+        when(itemRequestService.getAllRequests(user.getId(), from, size, null))
+                .thenReturn(PageDto.last(List.of(requestDtoOut)));
 
         String result = mockMvc.perform(MockMvcRequestBuilders.get("/requests/all")
                         .characterEncoding(StandardCharsets.UTF_8)
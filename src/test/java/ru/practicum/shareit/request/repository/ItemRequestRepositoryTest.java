@@ -5,8 +5,10 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Slice;
 import org.springframework.test.annotation.DirtiesContext;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.page.OffsetPageRequest;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.user.model.User;
 
@@ -25,15 +27,18 @@ class ItemRequestRepositoryTest {
     @Autowired
     TestEntityManager testEntityManager;
 
+    private User user1;
+    private User user2;
+
     @BeforeEach
     public void init() {
-        User user1 = User.builder()
+        user1 = User.builder()
                 .name("Professor")
                 .email("professor@yandex.ru")
                 .build();
         testEntityManager.persistFlushFind(user1);
 
-        User user2 = User.builder()
+        user2 = User.builder()
                 .name("Ne_Professor")
                 .email("NeProfessor@yandex.ru")
                 .build();
@@ -73,4 +78,30 @@ class ItemRequestRepositoryTest {
         assertEquals(requests.get(0).getDescription(), "Request description");
     }
 
+    @Test
+    void whenSeekAfterLastSeenRequestThenSameOrderAsByOffset() {
+        for (int i = 0; i < 3; i++) {
+            itemRequestRepository.save(ItemRequest.builder()
+                    .description("Newer request " + i)
+                    .requester(user2)
+                    .build());
+        }
+        testEntityManager.flush();
+        testEntityManager.clear();
+        List<ItemRequest> all = itemRequestRepository.findAllByRequester_IdNotOrderByCreatedDescIdDesc(
+                user1.getId(), OffsetPageRequest.of(0, 10)).getContent();
+
+        Slice<ItemRequest> first = itemRequestRepository.findAllByRequester_IdNotOrderByCreatedDescIdDesc(
+                user1.getId(), OffsetPageRequest.of(1, 2));
+        ItemRequest last = first.getContent().get(1);
+        Slice<ItemRequest> next = itemRequestRepository.findAllByRequesterIdNotAfter(user1.getId(),
+                last.getCreated(), last.getId(), OffsetPageRequest.of(0, 2));
+
+        assertEquals(4, all.size());
+        assertEquals(all.subList(1, 3), first.getContent());
+        assertTrue(first.hasNext());
+        assertEquals(all.subList(3, 4), next.getContent());
+        assertFalse(next.hasNext());
+    }
+
 }
\ No newline at end of file
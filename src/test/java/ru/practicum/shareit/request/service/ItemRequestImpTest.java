@@ -1,13 +1,21 @@
 package ru.practicum.shareit.request.service;
 
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
 import ru.practicum.shareit.exceptions.NotFoundException;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.outbox.service.OutboxService;
+import ru.practicum.shareit.page.OffsetPageRequest;
+import ru.practicum.shareit.page.PageDto;
+import ru.practicum.shareit.request.dto.ItemRequestCursor;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.dto.ItemRequestDtoOut;
 import ru.practicum.shareit.request.mapper.ItemRequestMapper;
@@ -17,12 +25,16 @@ import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.service.UserService;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -34,6 +46,12 @@ class ItemRequestImpTest {
     @Mock
     UserService userService;
 
+    @Mock
+    ItemRepository itemRepository;
+
+    @Mock
+    OutboxService outboxService;
+
     @InjectMocks
     ItemRequestImp requestServiceImp;
 
@@ -63,6 +81,11 @@ class ItemRequestImpTest {
             .description("Request description")
             .build();
 
+    @BeforeEach
+    void setUp() {
+        item.setRequest(request);
+    }
+
     @Test
     void whenAddNewRequestIsOk() {
         ItemRequestDto requestDto = ItemRequestMapper.toRequestDto(request);
@@ -73,13 +96,14 @@ class ItemRequestImpTest {
         ItemRequestDtoOut realRequestDtoOut = requestServiceImp.add(user.getId(), requestDto);
 
         assertEquals(requestDtoOut, realRequestDtoOut);
+        verify(outboxService).publish(OutboxService.REQUEST, request.getId(), OutboxService.CREATED, realRequestDtoOut);
     }
 
     @Test
     void whenGetUserRequestsIsOk() {
         List<ItemRequestDtoOut> requestDtoOuts = List.of(ItemRequestMapper.toRequestDtoOut(request));
-        when(userService.findById(user.getId())).thenReturn(userDto);
         when(itemRequestRepository.findAllByRequesterId(userDto.getId())).thenReturn(List.of(request));
+        when(itemRepository.findAllByRequestIdIn(Set.of(request.getId()))).thenReturn(List.of(item));
 
         List<ItemRequestDtoOut> realRequestsDto = requestServiceImp.getUserRequests(userDto.getId());
 
@@ -89,19 +113,39 @@ class ItemRequestImpTest {
     @Test
     void whenGetAllRequestsIsOk() {
         List<ItemRequestDtoOut> requestDtoOuts = List.of(ItemRequestMapper.toRequestDtoOut(request));
-        when(itemRequestRepository.findAllByRequester_IdNotOrderByCreatedDesc(anyLong(),
-                any(PageRequest.class))).thenReturn(List.of(request));
+        when(itemRequestRepository.findAllByRequester_IdNotOrderByCreatedDescIdDesc(anyLong(),
+                any(Pageable.class))).thenReturn(new SliceImpl<>(List.of(request)));
+        when(itemRepository.findAllByRequestIdIn(Set.of(request.getId()))).thenReturn(List.of(item));
 
-        List<ItemRequestDtoOut> realRequestDtoOut = requestServiceImp.getAllRequests(user.getId(), 0, 10);
+        List<ItemRequestDtoOut> realRequestDtoOut = requestServiceImp.getAllRequests(user.getId(), 0, 10, null)
+                .getItems();
 
         assertEquals(requestDtoOuts, realRequestDtoOut);
     }
 
+    @Test
+    void whenGetAllRequestsAfterCursorThenSeeksFromIt() {
+        request.setCreated(LocalDateTime.of(2024, 5, 23, 12, 34, 56));
+        ItemRequestCursor cursor = new ItemRequestCursor(request.getCreated().plusHours(1L), 7L);
+        when(itemRequestRepository.findAllByRequesterIdNotAfter(user.getId(), cursor.getCreated(), cursor.getId(),
+                OffsetPageRequest.of(0, 1)))
+                .thenReturn(new SliceImpl<>(List.of(request), PageRequest.of(0, 1), true));
+        when(itemRepository.findAllByRequestIdIn(Set.of(request.getId()))).thenReturn(List.of(item));
+
+        PageDto<ItemRequestDtoOut> page = requestServiceImp.getAllRequests(user.getId(), 40, 1, cursor.encode());
+
+        assertEquals(List.of(request.getId()), page.getItems().stream()
+                .map(ItemRequestDtoOut::getId)
+                .collect(Collectors.toList()));
+        assertTrue(page.isHasMore());
+        assertEquals(ItemRequestCursor.of(request).encode(), page.getNextCursor());
+    }
+
     @Test
     void whenGetRequestByIdIsOk() {
         ItemRequestDtoOut requestDtoOut = ItemRequestMapper.toRequestDtoOut(request);
-        when(userService.findById(user.getId())).thenReturn(userDto);
         when(itemRequestRepository.findById(request.getId())).thenReturn(Optional.of(request));
+        when(itemRepository.findAllByRequestIdIn(Set.of(request.getId()))).thenReturn(List.of(item));
 
         ItemRequestDtoOut realRequestDtoOut = requestServiceImp.getRequestById(userDto.getId(), request.getId());
 
@@ -110,7 +154,6 @@ class ItemRequestImpTest {
 
     @Test
     void whenGetRequestByIdIsNotValidShouldThrowNotFoundException() {
-        when(userService.findById(user.getId())).thenReturn(userDto);
         when(itemRequestRepository.findById(request.getId())).thenReturn(Optional.empty());
 
         NotFoundException notFoundException = assertThrows(NotFoundException.class,
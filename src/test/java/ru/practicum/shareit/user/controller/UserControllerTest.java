@@ -6,14 +6,27 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.mock.web.MockHttpServletResponse;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import ru.practicum.shareit.page.PageDto;
+import ru.practicum.shareit.page.PageResponse;
+import ru.practicum.shareit.page.StreamLimiter;
+import ru.practicum.shareit.user.dto.UserCursor;
 import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.dto.UserImportResult;
+import ru.practicum.shareit.user.service.UserImportService;
 import ru.practicum.shareit.user.service.UserService;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
@@ -21,6 +34,7 @@ import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(controllers = UserController.class)
+@Import(StreamLimiter.class)
 class UserControllerTest {
 
     @Autowired
@@ -32,6 +46,9 @@ class UserControllerTest {
     @MockBean
     UserService userService;
 
+    @MockBean
+    UserImportService userImportService;
+
     @Test
     @SneakyThrows
     void whenCreateUserAndHeIsValid() {
@@ -162,20 +179,82 @@ class UserControllerTest {
                         .email("professor@yandex.ru")
                         .build());
 
-        when(userService.getAllUsers()).thenReturn(userDtoList);
+        when(userService.getAllUsers(null, null)).thenReturn(PageDto.last(userDtoList));
 
-        String result = mockMvc.perform(MockMvcRequestBuilders.get("/users"))
+        MockHttpServletResponse response = mockMvc.perform(MockMvcRequestBuilders.get("/users"))
                 .andExpect(status().isOk())
                 .andReturn()
-                .getResponse()
-                .getContentAsString();
+                .getResponse();
 
         assertEquals("[{"
                 + "\"id\":1,"
                 + "\"name\":\"Professor\","
                 + "\"email\":\"professor@yandex.ru\""
-                + "}]", result);
+                + "}]", response.getContentAsString());
+        assertEquals("false", response.getHeader(PageResponse.HAS_MORE_HEADER));
+        assertNull(response.getHeader(PageResponse.NEXT_CURSOR_HEADER));
+    }
+
+    @Test
+    @SneakyThrows
+    void whenGetFullPageOfUsersReturnsNextCursor() {
+        UserDto userDto = UserDto.builder()
+                .id(5L)
+                .name("Professor")
+                .email("professor@yandex.ru")
+                .build();
+        String cursor = new UserCursor(4L).encode();
+        when(userService.getAllUsers(cursor, 1))
+                .thenReturn(PageDto.of(List.of(userDto, new UserDto()), 1, user -> UserCursor.of(user).encode()));
+
+        MockHttpServletResponse response = mockMvc.perform(MockMvcRequestBuilders.get("/users")
+                        .param("cursor", cursor)
+                        .param("size", "1"))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse();
+
+        assertEquals("true", response.getHeader(PageResponse.HAS_MORE_HEADER));
+        assertEquals(new UserCursor(5L).encode(), response.getHeader(PageResponse.NEXT_CURSOR_HEADER));
+    }
+
+    @Test
+    @SneakyThrows
+    void whenStreamAllUsersWritesJsonArray() {
+        doAnswer(invocation -> {
+            Consumer<UserDto> consumer = invocation.getArgument(0);
+            consumer.accept(new UserDto(1L, "Professor", "professor@yandex.ru"));
+            consumer.accept(new UserDto(2L, "Student", "student@yandex.ru"));
+            return null;
+        }).when(userService).streamAllUsers(any());
+
+        String result = mockMvc.perform(MockMvcRequestBuilders.get("/users").param("stream", "true"))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+
+        assertEquals("[{\"id\":1,\"name\":\"Professor\",\"email\":\"professor@yandex.ru\"},"
+                + "{\"id\":2,\"name\":\"Student\",\"email\":\"student@yandex.ru\"}]", result);
+        verify(userService, never()).getAllUsers(any(), any());
+    }
+
+    @Test
+    @SneakyThrows
+    void whenStreamFailsBeforeTheResponseIsCommittedThenOnlyTheErrorIsReturned() {
+        doAnswer(invocation -> {
+            Consumer<UserDto> consumer = invocation.getArgument(0);
+            consumer.accept(new UserDto(1L, "Professor", "professor@yandex.ru"));
+            throw new IllegalStateException("The database went away");
+        }).when(userService).streamAllUsers(any());
+
+        String result = mockMvc.perform(MockMvcRequestBuilders.get("/users").param("stream", "true"))
+                .andExpect(status().isInternalServerError())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
 
+        assertEquals("{\"error\":\"The database went away\"}", result);
     }
 
     @Test
@@ -189,4 +268,52 @@ class UserControllerTest {
         verify(userService, times(1)).delete(userId);
     }
 
-}
\ No newline at end of file
+    @Test
+    @SneakyThrows
+    void whenAddUsersInBatchReturnsResultPerRow() {
+        UserDto valid = UserDto.builder().name("Professor").email("professor@yandex.ru").build();
+        UserDto duplicate = UserDto.builder().name("Copy").email("professor@yandex.ru").build();
+        when(userImportService.addAll(List.of(valid, duplicate), 0)).thenReturn(List.of(
+                UserImportResult.created(0, UserDto.builder().id(1L).name("Professor").email("professor@yandex.ru")
+                        .build()),
+                UserImportResult.rejected(1, "User with email= professor@yandex.ru already exists.")));
+
+        String result = mockMvc.perform(post("/users/batch")
+                        .contentType("application/json")
+                        .content(objectMapper.writeValueAsString(List.of(valid, duplicate))))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+
+        assertEquals("["
+                + "{\"index\":0,\"user\":{\"id\":1,\"name\":\"Professor\",\"email\":\"professor@yandex.ru\"}},"
+                + "{\"index\":1,\"error\":\"User with email= professor@yandex.ru already exists.\"}"
+                + "]", result);
+    }
+
+    @Test
+    @SneakyThrows
+    void whenAddUsersAsNdjsonImportsInChunksAndReportsMalformedRows() {
+        StringBuilder body = new StringBuilder();
+        for (int i = 0; i < UserController.IMPORT_CHUNK_SIZE; i++) {
+            body.append("{\"name\":\"User\",\"email\":\"user").append(i).append("@yandex.ru\"}\n");
+        }
+        body.append("\n").append("not json\n");
+        when(userImportService.addAll(anyList(), eq(0))).thenReturn(List.of(UserImportResult.rejected(0, "first")));
+        when(userImportService.addAll(anyList(), eq(UserController.IMPORT_CHUNK_SIZE)))
+                .thenReturn(List.of(UserImportResult.rejected(UserController.IMPORT_CHUNK_SIZE, "second")));
+
+        String result = mockMvc.perform(post("/users/batch")
+                        .contentType("application/x-ndjson")
+                        .content(body.toString()))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+
+        assertEquals("{\"index\":0,\"error\":\"first\"}\n{\"index\":1000,\"error\":\"second\"}\n", result);
+        verify(userImportService).addAll(argThat(rows -> rows.size() == 1 && rows.get(0) == null),
+                eq(UserController.IMPORT_CHUNK_SIZE));
+    }
+}
@@ -0,0 +1,68 @@
+package ru.practicum.shareit.user.integration;
+
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.web.server.LocalServerPort;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+
+/**
+ * The user stream failing after its first rows have been sent: the connection has to be cut, neither an error
+ * nor the end of the array may follow the rows.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.datasource.url=jdbc:h2:mem:users-stream",
+        "shareit.outbox.dispatcher.enabled=false"})
+class UserStreamAbortTest {
+
+    @LocalServerPort
+    int port;
+
+    @MockBean
+    UserService userService;
+
+    @Test
+    @SneakyThrows
+    void whenStreamFailsAfterItStartedThenTheConnectionIsAborted() {
+        doAnswer(invocation -> {
+            Consumer<UserDto> consumer = invocation.getArgument(0);
+            for (long id = 1; id <= 1000; id++) {
+                consumer.accept(new UserDto(id, "Professor", "professor" + id + "@yandex.ru"));
+            }
+            throw new IllegalStateException("The database went away");
+        }).when(userService).streamAllUsers(any());
+
+        String response = get("/users?stream=true");
+
+        assertTrue(response.startsWith("HTTP/1.1 200"), response.substring(0, 100));
+        assertTrue(response.contains("\"id\":1,"));
+        assertFalse(response.contains("The database went away"));
+        assertFalse(response.contains("\"error\""));
+        assertFalse(response.contains("]"), "The array must not be closed");
+        assertFalse(response.endsWith("0\r\n\r\n"), "The chunked response must not be terminated");
+    }
+
+    @SneakyThrows
+    private String get(String path) {
+        try (Socket socket = new Socket("localhost", port)) {
+            OutputStream out = socket.getOutputStream();
+            out.write(("GET " + path + " HTTP/1.1\r\nHost: localhost\r\n\r\n").getBytes(StandardCharsets.US_ASCII));
+            out.flush();
+            InputStream in = socket.getInputStream();
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
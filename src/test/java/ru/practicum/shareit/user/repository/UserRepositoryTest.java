@@ -0,0 +1,76 @@
+package ru.practicum.shareit.user.repository;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.annotation.DirtiesContext;
+import ru.practicum.shareit.config.IdGeneration;
+import ru.practicum.shareit.user.model.User;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_EACH_TEST_METHOD)
+class UserRepositoryTest {
+
+    @Autowired
+    UserRepository userRepository;
+
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void whenInsertAllThenUsersAreInsertedInBatches() {
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < 1200; i++) {
+            users.add(User.builder().name("User " + i).email("user" + i + "@yandex.ru").build());
+        }
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        userRepository.insertAll(users);
+
+        assertTrue(statistics.getPrepareStatementCount() <= 2 * 1200 / IdGeneration.ALLOCATION_SIZE,
+                "one sequence call and one insert batch per 50 users");
+        assertEquals(1200, userRepository.count());
+        for (User user : users) {
+            assertNotNull(user.getId());
+            assertEquals(user.getEmail(), userRepository.findById(user.getId()).orElseThrow().getEmail());
+        }
+    }
+
+    @Test
+    void whenFindExistingEmailsReturnsOnlyStoredOnes() {
+        userRepository.saveAndFlush(User.builder().name("Professor").email("professor@yandex.ru").build());
+
+        Set<String> existing = userRepository.findExistingEmails(List.of("professor@yandex.ru", "new@yandex.ru"));
+
+        assertEquals(Set.of("professor@yandex.ru"), existing);
+        assertTrue(userRepository.findExistingEmails(List.of()).isEmpty());
+    }
+
+    @Test
+    void whenForEachUserThenUsersComeInIdOrder() {
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            users.add(userRepository.save(User.builder().name("User " + i).email("user" + i + "@yandex.ru").build()));
+        }
+        userRepository.flush();
+        List<Long> ids = new ArrayList<>();
+
+        userRepository.forEachUser(user -> ids.add(user.getId()));
+
+        assertEquals(List.of(users.get(0).getId(), users.get(1).getId(), users.get(2).getId()), ids);
+        assertEquals(users.subList(1, 3), userRepository.findAllByIdGreaterThanOrderByIdAsc(users.get(0).getId(),
+                PageRequest.of(0, 10)).getContent());
+    }
+}
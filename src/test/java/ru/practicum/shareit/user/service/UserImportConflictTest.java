@@ -0,0 +1,62 @@
+package ru.practicum.shareit.user.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import ru.practicum.shareit.exceptions.NotUniqueEmailException;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.dto.UserImportResult;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import javax.validation.Validator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+
+/**
+ * A user with an email of the chunk is committed by another request between the email check and the insert:
+ * the check has been done when the rows are validated.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:users-import",
+        "shareit.outbox.dispatcher.enabled=false"})
+class UserImportConflictTest {
+
+    @Autowired
+    UserImportService importService;
+
+    @Autowired
+    UserRepository userRepository;
+
+    @SpyBean
+    Validator validator;
+
+    @AfterEach
+    void deleteUsers() {
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void whenConcurrentCreateTakesAnEmailThenOnlyItsRowIsRejected() {
+        doAnswer(invocation -> {
+            CompletableFuture.runAsync(() -> userRepository.save(new User(null, "Racer", "race@yandex.ru"))).get();
+            return invocation.callRealMethod();
+        }).doCallRealMethod().when(validator).validate(any(), any());
+
+        List<UserImportResult> results = importService.addAll(List.of(
+                UserDto.builder().name("Professor").email("professor@yandex.ru").build(),
+                UserDto.builder().name("Late").email("race@yandex.ru").build()), 0);
+
+        assertEquals("professor@yandex.ru", results.get(0).getUser().getEmail());
+        assertNull(results.get(0).getError());
+        assertEquals(NotUniqueEmailException.message("race@yandex.ru"), results.get(1).getError());
+        assertEquals(2, userRepository.count());
+    }
+}
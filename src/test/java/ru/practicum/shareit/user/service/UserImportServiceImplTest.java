@@ -0,0 +1,126 @@
+package ru.practicum.shareit.user.service;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import ru.practicum.shareit.exceptions.NotUniqueEmailException;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.dto.UserImportResult;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import javax.validation.Validation;
+import javax.validation.ValidatorFactory;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UserImportServiceImplTest {
+    private static final ValidatorFactory VALIDATOR_FACTORY = Validation.buildDefaultValidatorFactory();
+
+    @Mock
+    UserRepository userRepository;
+
+    UserImportServiceImpl importService;
+
+    @BeforeEach
+    void init() {
+        importService = new UserImportServiceImpl(userRepository, VALIDATOR_FACTORY.getValidator());
+    }
+
+    @AfterAll
+    static void close() {
+        VALIDATOR_FACTORY.close();
+    }
+
+    @Test
+    void whenAddAllThenEveryRowGetsItsResult() {
+        List<UserDto> users = Arrays.asList(
+                UserDto.builder().name("Professor").email("professor@yandex.ru").build(),
+                UserDto.builder().name("Copy").email("professor@yandex.ru").build(),
+                UserDto.builder().name("Existing").email("existing@yandex.ru").build(),
+                UserDto.builder().name("").email("not-an-email").build(),
+                null);
+        when(userRepository.findExistingEmails(Set.of("professor@yandex.ru", "existing@yandex.ru", "not-an-email")))
+                .thenReturn(Set.of("existing@yandex.ru"));
+        when(userRepository.insertAll(anyList())).thenAnswer(invocation -> {
+            List<User> inserted = invocation.getArgument(0);
+            inserted.get(0).setId(7L);
+            return inserted;
+        });
+
+        List<UserImportResult> results = importService.addAll(users, 100);
+
+        assertEquals(5, results.size());
+        assertEquals(new UserImportResult(100,
+                new UserDto(7L, "Professor", "professor@yandex.ru"), null), results.get(0));
+        assertEquals("User with email= professor@yandex.ru already exists.", results.get(1).getError());
+        assertEquals("User with email= existing@yandex.ru already exists.", results.get(2).getError());
+        assertEquals("email: must be a well-formed email address; name: must not be blank",
+                results.get(3).getError());
+        assertEquals(UserImportServiceImpl.MALFORMED_ROW, results.get(4).getError());
+        assertEquals(104, results.get(4).getIndex());
+        assertNull(results.get(4).getUser());
+        verify(userRepository).insertAll(argThat(inserted -> inserted.size() == 1));
+    }
+
+    @Test
+    void whenEveryAttemptConflictsThenValidRowsAreAnsweredAsNotInserted() {
+        List<UserDto> users = Arrays.asList(
+                UserDto.builder().name("Professor").email("professor@yandex.ru").build(),
+                UserDto.builder().name("Existing").email("existing@yandex.ru").build());
+        when(userRepository.findExistingEmails(Set.of("professor@yandex.ru", "existing@yandex.ru")))
+                .thenReturn(Set.of("existing@yandex.ru"));
+
+        List<UserImportResult> results = importService.addAll(
+                new NotUniqueEmailException("An email of the chunk was taken concurrently"), users, 10);
+
+        assertEquals(List.of(
+                UserImportResult.rejected(10, UserImportServiceImpl.CONFLICTING_ROW),
+                UserImportResult.rejected(11, "User with email= existing@yandex.ru already exists.")), results);
+        verify(userRepository, never()).insertAll(anyList());
+    }
+
+    @Test
+    void whenInsertHitsTheEmailConstraintThenItIsReportedForRetry() {
+        List<UserDto> users = List.of(UserDto.builder().name("Professor").email("professor@yandex.ru").build());
+        when(userRepository.insertAll(anyList())).thenThrow(new DataIntegrityViolationException(
+                "Unique index or primary key violation: \"PUBLIC.UQ_USER_EMAIL_INDEX_4 ON PUBLIC.USERS(EMAIL)\""));
+
+        assertThrows(NotUniqueEmailException.class, () -> importService.addAll(users, 0));
+    }
+
+    @Test
+    void whenInsertHitsAnotherConstraintThenItIsNotTakenForAnEmailConflict() {
+        List<UserDto> users = List.of(UserDto.builder().name("Professor").email("professor@yandex.ru").build());
+        when(userRepository.insertAll(anyList())).thenThrow(new DataIntegrityViolationException(
+                "NULL not allowed for column \"NAME\""));
+
+        assertThrows(DataIntegrityViolationException.class, () -> importService.addAll(users, 0));
+    }
+
+    @Test
+    void whenRowIsLongerThanTheColumnsThenOnlyItIsRejected() {
+        List<UserDto> users = List.of(
+                UserDto.builder().name("N".repeat(256)).email("long@yandex.ru").build(),
+                UserDto.builder().name("Professor").email("professor@yandex.ru").build());
+        when(userRepository.insertAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        List<UserImportResult> results = importService.addAll(users, 0);
+
+        assertEquals("name: size must be between 0 and 255", results.get(0).getError());
+        assertNull(results.get(1).getError());
+        verify(userRepository).insertAll(argThat(inserted -> inserted.size() == 1));
+    }
+}
@@ -0,0 +1,110 @@
+package ru.practicum.shareit.user.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.exceptions.NotFoundException;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import javax.persistence.EntityManagerFactory;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:users-cache",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "shareit.outbox.dispatcher.enabled=false",
+        "logging.level.org.hibernate.engine.internal.StatisticalLoggingSessionEventListener=WARN"})
+class UserServiceCacheTest {
+
+    @Autowired
+    UserService userService;
+
+    @Autowired
+    UserRepository userRepository;
+
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    private Statistics statistics;
+    private Long userId;
+
+    @BeforeEach
+    void addUser() {
+        userId = userService.add(UserDto.builder().name("Professor").email("professor@yandex.ru").build()).getId();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @AfterEach
+    void deleteUsers() {
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void whenFindByIdTwiceThenSecondCallIsServedFromCache() {
+        double hits = cacheGets("hit");
+
+        userService.findById(userId);
+        userService.findById(userId);
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(hits + 1, cacheGets("hit"));
+    }
+
+    @Test
+    void whenCheckExistsTwiceThenSecondCallIsServedFromCache() {
+        userService.checkExists(userId);
+        userService.checkExists(userId);
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void whenCheckMissingUserThenResultIsNotCached() {
+        Long missingId = userId + 1;
+        assertThrows(NotFoundException.class, () -> userService.checkExists(missingId));
+        assertThrows(NotFoundException.class, () -> userService.checkExists(missingId));
+
+        assertEquals(2, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void whenUpdateUserThenCachedUserIsEvicted() {
+        userService.findById(userId);
+
+        userService.update(userId, UserDto.builder().name("Updated").build());
+
+        assertEquals("Updated", userService.findById(userId).getName());
+    }
+
+    @Test
+    void whenDeleteUserThenCachedUserIsEvicted() {
+        userService.findById(userId);
+
+        userService.checkExists(userId);
+
+        userService.delete(userId);
+
+        assertThrows(NotFoundException.class, () -> userService.findById(userId));
+        assertThrows(NotFoundException.class, () -> userService.checkExists(userId));
+    }
+
+    private double cacheGets(String result) {
+        return meterRegistry.get("cache.gets")
+                .tag("cache", "users")
+                .tag("result", result)
+                .functionCounter()
+                .count();
+    }
+}
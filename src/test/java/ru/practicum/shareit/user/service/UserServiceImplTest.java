@@ -5,7 +5,11 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
 import ru.practicum.shareit.exceptions.NotFoundException;
+import ru.practicum.shareit.exceptions.ValidationException;
+import ru.practicum.shareit.user.dto.UserCursor;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.mapper.UserMapper;
 import ru.practicum.shareit.user.model.User;
@@ -92,6 +96,22 @@ class UserServiceImplTest {
         assertEquals(userNotFound.getMessage(), "User with id= " + userId + " doesn't exist.");
     }
 
+    @Test
+    void whenCheckExistingUser() {
+        when(userRepository.existsById(1L)).thenReturn(true);
+
+        assertDoesNotThrow(() -> userService.checkExists(1L));
+        verify(userRepository, never()).findById(1L);
+    }
+
+    @Test
+    void whenCheckMissingUserShouldThrowNotFoundException() {
+        when(userRepository.existsById(1L)).thenReturn(false);
+
+        NotFoundException userNotFound = assertThrows(NotFoundException.class, () -> userService.checkExists(1L));
+        assertEquals("User with id= 1 doesn't exist.", userNotFound.getMessage());
+    }
+
     @Test
     void whenFindAllUsers() {
         List<User> users = List.of(new User());
@@ -99,14 +119,33 @@ class UserServiceImplTest {
                 .map(UserMapper::toUserDto)
                 .collect(Collectors.toList());
 
-        when(userRepository.findAll()).thenReturn(users);
+        when(userRepository.findAllByIdGreaterThanOrderByIdAsc(0L, PageRequest.of(0, UserService.MAX_PAGE_SIZE)))
+                .thenReturn(new SliceImpl<>(users));
 
-        List<UserDto> realUsersDto = userService.getAllUsers();
+        List<UserDto> realUsersDto = userService.getAllUsers(null, null).getItems();
 
         assertEquals(realUsersDto.size(), 1);
         assertEquals(realUsersDto, usersDto);
     }
 
+    @Test
+    void whenFindUsersAfterCursorThenPageStartsAfterIt() {
+        when(userRepository.findAllByIdGreaterThanOrderByIdAsc(4L, PageRequest.of(0, UserService.MAX_PAGE_SIZE)))
+                .thenReturn(new SliceImpl<>(List.of()));
+
+        List<UserDto> realUsersDto = userService.getAllUsers(new UserCursor(4L).encode(), 100_000)
+                .getItems();
+
+        assertTrue(realUsersDto.isEmpty());
+    }
+
+    @Test
+    void whenFindUsersWithInvalidPageShouldThrowValidationException() {
+        assertThrows(ValidationException.class, () -> userService.getAllUsers(null, 0));
+        assertThrows(ValidationException.class, () -> userService.getAllUsers("%%%", 10));
+        verifyNoInteractions(userRepository);
+    }
+
     @Test
     void whenDeleteUser() {
         long userId = 0L;